@@ -0,0 +1,185 @@
+/* CheckpointTest.java */
+
+/**
+ * The CheckpointTest class saves Checkpoints of random graphs, restores
+ * them, and checks that the graph, the tree and the sets come back intact.
+ * It also checks that restore() rejects damaged and mismatched files with
+ * an IOException.
+ */
+
+import graph.*;
+import graphalg.*;
+import set.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class CheckpointTest {
+
+  private static boolean ok = true;
+
+  /**
+   * sameCheckpoint() returns null if "restored" holds the same graph, tree
+   * edges and partition into sets as "saved", or else a description of a
+   * difference.
+   */
+  private static String sameCheckpoint(Checkpoint saved, Checkpoint restored) {
+    String problem = GraphFileTest.sameGraph(saved.graph(), restored.graph());
+    if (problem != null) {
+      return "graph: " + problem;
+    }
+    MstResult t1 = saved.tree();
+    MstResult t2 = restored.tree();
+    if (t1.edgeCount() != t2.edgeCount() || t1.totalWeight() != t2.totalWeight()) {
+      return "the tree has " + t2.edgeCount() + " edges of weight " +
+        t2.totalWeight() + ", not " + t1.edgeCount() + " of weight " +
+        t1.totalWeight();
+    }
+    for (int i = 0; i < t1.edgeCount(); i++) {
+      if (t1.end1(i) != t2.end1(i) || t1.end2(i) != t2.end2(i) ||
+          t1.weight(i) != t2.weight(i)) {
+        return "tree edge " + i + " differs";
+      }
+    }
+    DisjointSets s1 = saved.sets();
+    DisjointSets s2 = restored.sets();
+    int n = saved.graph().vertexCount();
+    for (int v = 0; v < n; v++) {
+      if ((s1.find(v) == s1.find(0)) != (s2.find(v) == s2.find(0)) ||
+          (s1.find(v) == s1.find(n - 1)) != (s2.find(v) == s2.find(n - 1))) {
+        return "vertex " + v + " is in a different set";
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      if (t1.component(v) != t2.component(v)) {
+        return "vertex " + v + " is in a different component";
+      }
+    }
+    return null;
+  }
+
+  private static File copy(File file, long length) throws IOException {
+    File damaged = File.createTempFile("checkpoint", ".kckp");
+    damaged.deleteOnExit();
+    FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    FileChannel out = FileChannel.open(damaged.toPath(), StandardOpenOption.WRITE);
+    try {
+      in.transferTo(0, length, out);
+    } finally {
+      in.close();
+      out.close();
+    }
+    return damaged;
+  }
+
+  private static void putInt(File file, long pos, int x) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+    try {
+      ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+      buf.putInt(x);
+      buf.flip();
+      channel.write(buf, pos);
+    } finally {
+      channel.close();
+    }
+  }
+
+  private static void expectRejected(String name, File file) {
+    try {
+      Checkpoint.restore(file);
+      System.out.println(name + ":  restore() should throw an IOException.");
+      ok = false;
+    } catch (IOException e) {
+    } catch (RuntimeException e) {
+      System.out.println(name + ":  restore() throws " + e +
+                         " instead of an IOException.");
+      ok = false;
+    } catch (StackOverflowError e) {
+      System.out.println(name + ":  restore() overflows the stack.");
+      ok = false;
+    }
+    file.delete();
+  }
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(35);
+    System.out.println("Running Checkpoint test.");
+
+    // The last graph is large enough that the tree and sets span many
+    // buffers.
+    IntGraph[] graphs = {
+      new IntWUGraph(1),
+      new IntWUGraph(6),
+      GraphFileTest.randomGraph(random, 60, 150),
+      GraphFileTest.randomGraph(random, 40000, 120000)
+    };
+    File file = null;
+    for (int i = 0; i < graphs.length; i++) {
+      Checkpoint saved = Checkpoint.compute(graphs[i]);
+      file = File.createTempFile("checkpoint", ".kckp");
+      file.deleteOnExit();
+      saved.save(file);
+      String problem = sameCheckpoint(saved, Checkpoint.restore(file));
+      if (problem != null) {
+        System.out.println("Graph " + i + " (" + graphs[i].vertexCount() +
+                           " vertices):  " + problem + ".");
+        ok = false;
+      }
+      if (i < graphs.length - 1) {
+        file.delete();
+      }
+    }
+
+    long length = file.length();
+    File damaged = copy(file, length);
+    putInt(damaged, 8, graphs[3].vertexCount() + 1);
+    expectRejected("Header for more vertices than the graph", damaged);
+    damaged = copy(file, length);
+    putInt(damaged, 8, graphs[3].vertexCount() - 1);
+    expectRejected("Header for fewer vertices than the graph", damaged);
+    damaged = copy(file, length);
+    putInt(damaged, 12, Integer.MAX_VALUE);
+    expectRejected("Too many tree edges", damaged);
+    damaged = copy(file, length);
+    putInt(damaged, 0, 0);
+    expectRejected("Wrong magic", damaged);
+    expectRejected("Truncated tail", copy(file, length - 4));
+    expectRejected("Truncated graph", copy(file, 100));
+    damaged = copy(file, length);
+    putInt(damaged, length - 4, graphs[3].vertexCount());
+    expectRejected("Sets entry out of range", damaged);
+
+    // The sets must be the components of the tree.
+    int n = graphs[3].vertexCount();
+    long sets = length - 4L * n;
+    damaged = copy(file, length);
+    putInt(damaged, sets, 1);
+    putInt(damaged, sets + 4, 0);
+    expectRejected("Sets with a cycle", damaged);
+    damaged = copy(file, length);
+    for (int v = 0; v < n; v++) {
+      putInt(damaged, sets + 4L * v, -1);
+    }
+    expectRejected("Sets of single vertices", damaged);
+    Checkpoint restored = Checkpoint.restore(file);
+    MstResult tree = restored.tree();
+    int size = tree.componentSize(tree.component(0));
+    damaged = copy(file, length);
+    putInt(damaged, sets + 4L * restored.sets().find(0),
+           size == n ? -1 : -(size + 1));
+    expectRejected("Sets with a wrong size", damaged);
+    damaged = copy(file, length);
+    putInt(damaged, sets - 12L * tree.edgeCount() + 4, tree.end1(0));
+    expectRejected("A tree edge closing a cycle", damaged);
+    file.delete();
+
+    if (ok) {
+      System.out.println("Checkpoint test passed.");
+    } else {
+      System.out.println("Checkpoint test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/* EdgeBatchTest.java */
+
+/**
+ * The EdgeBatchTest class applies random EdgeBatches (additions,
+ * reweightings and removals, including self-edges and changes naming
+ * vertices not in the graph) to WUGraphs with applyBatch(), makes the same
+ * changes to twin graphs one addEdge() or removeEdge() call at a time, and
+ * checks that the two graphs, their versions and the reported number of
+ * changes agree.  One batch is cleared and reused for every tick.
+ */
+
+import graph.*;
+import java.util.*;
+
+public class EdgeBatchTest {
+
+  private static boolean ok = true;
+
+  /**
+   * newGraph() returns a WUGraph whose vertices are the Integers 0...n - 1,
+   * except every fifth one.
+   */
+  private static WUGraph newGraph(int n) {
+    WUGraph g = new WUGraph();
+    for (int v = 0; v < n; v++) {
+      if (v % 5 != 4) {
+        g.addVertex(Integer.valueOf(v));
+      }
+    }
+    return g;
+  }
+
+  /**
+   * sameGraph() returns null if g and h have the same vertices, the same
+   * number of edges, and every edge of g in h with the same weight (so the
+   * same edges), or else a description of a difference.  The vertices of
+   * both must be Integers less than n.
+   */
+  private static String sameGraph(WUGraph g, WUGraph h, int n) {
+    if (g.vertexCount() != h.vertexCount() || g.edgeCount() != h.edgeCount()) {
+      return "the graphs have " + g.vertexCount() + " and " +
+        h.vertexCount() + " vertices, " + g.edgeCount() + " and " +
+        h.edgeCount() + " edges";
+    }
+    for (int u = 0; u < n; u++) {
+      Integer iu = Integer.valueOf(u);
+      if (g.isVertex(iu) != h.isVertex(iu) || g.degree(iu) != h.degree(iu)) {
+        return "vertex " + u + " differs";
+      }
+      Neighbors neighbors = g.getNeighbors(iu);
+      if (neighbors == null) {
+        continue;
+      }
+      for (int i = 0; i < neighbors.neighborList.length; i++) {
+        Object v = neighbors.neighborList[i];
+        if (!h.isEdge(iu, v) || h.weight(iu, v) != neighbors.weightList[i]) {
+          return "edge (" + u + ", " + v + ") differs";
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * fill() clears "batch" and fills it with "changes" random changes among
+   * vertices 0...n + 2, mostly to edges named by earlier changes (in
+   * either direction), and makes each change to h one call at a time.  It
+   * returns the number of calls that changed h (by its version).
+   */
+  private static int fill(EdgeBatch batch, WUGraph h, Random random, int n,
+                          int changes) {
+    batch.clear();
+    int changed = 0;
+    int[] ends1 = new int[changes];
+    int[] ends2 = new int[changes];
+    for (int k = 0; k < changes; k++) {
+      int u;
+      int v;
+      if (k > 0 && random.nextInt(3) > 0) {
+        int j = random.nextInt(k);
+        u = ends1[j];
+        v = ends2[j];
+      } else {
+        u = random.nextInt(n + 3);
+        v = random.nextInt(8) == 0 ? u : random.nextInt(n + 3);
+      }
+      ends1[k] = u;
+      ends2[k] = v;
+      if (random.nextBoolean()) {
+        u = ends2[k];
+        v = ends1[k];
+      }
+      long before = h.version();
+      if (random.nextInt(4) == 0) {
+        batch.removeEdge(u, v);
+        h.removeEdge(Integer.valueOf(u), Integer.valueOf(v));
+      } else {
+        int w = random.nextInt(21) - 10;
+        batch.addEdge(u, v, w);
+        h.addEdge(Integer.valueOf(u), Integer.valueOf(v), w);
+      }
+      if (h.version() != before) {
+        changed++;
+      }
+    }
+    return changed;
+  }
+
+  private static void fail(String what, String problem) {
+    if (problem != null && ok) {
+      System.out.println(what + ":  " + problem + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(50);
+    System.out.println("Running EdgeBatch test.");
+
+    EdgeBatch batch = new EdgeBatch();
+    for (int trial = 0; trial < 100 && ok; trial++) {
+      int n = 1 + random.nextInt(trial < 90 ? 30 : 3000);
+      WUGraph g = newGraph(n);
+      WUGraph h = newGraph(n);
+      for (int tick = 0; tick < 10 && ok; tick++) {
+        int changes = random.nextInt(trial < 90 ? 3 * n + 1 : 20000);
+        int expected = fill(batch, h, random, n, changes);
+        String where = "Trial " + trial + ", tick " + tick;
+        if (batch.size() != changes) {
+          fail(where, "the batch holds " + batch.size() + " changes, not " +
+               changes);
+        }
+        long before = g.version();
+        int changed = g.applyBatch(batch);
+        if (changed != expected) {
+          fail(where, "applyBatch() reports " + changed + " changes, not " +
+               expected);
+        }
+        if (g.version() - before != expected) {
+          fail(where, "applyBatch() advances the version by " +
+               (g.version() - before) + ", not " + expected);
+        }
+        fail(where, sameGraph(g, h, n + 3));
+      }
+    }
+
+    batch.clear();
+    if (batch.size() != 0 || batch.additions() != 0) {
+      fail("clear()", "the batch still holds " + batch.size() + " changes, " +
+           batch.additions() + " additions");
+    }
+    batch.addEdge(3, 9, 1);
+    batch.removeEdge(7, 2);
+    if (batch.size() != 2 || batch.additions() != 1) {
+      fail("Refilling", "the batch holds " + batch.size() + " changes, " +
+           batch.additions() + " additions");
+    }
+
+    int[][] negative = {{-1, 0}, {0, -2}, {-3, -3}};
+    for (int i = 0; i < negative.length; i++) {
+      for (int removal = 0; removal < 2; removal++) {
+        try {
+          if (removal == 0) {
+            batch.addEdge(negative[i][0], negative[i][1], 1);
+          } else {
+            batch.removeEdge(negative[i][0], negative[i][1]);
+          }
+          fail("Negative vertices (" + negative[i][0] + ", " +
+               negative[i][1] + ")", "no IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+      }
+    }
+    if (batch.size() != 2) {
+      fail("Negative vertices", "the batch holds " + batch.size() +
+           " changes, not 2");
+    }
+
+    if (ok) {
+      System.out.println("EdgeBatch test passed.");
+    } else {
+      System.out.println("EdgeBatch test FAILED.");
+    }
+  }
+}
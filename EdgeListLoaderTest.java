@@ -0,0 +1,168 @@
+/* EdgeListLoaderTest.java */
+
+/**
+ * The EdgeListLoaderTest class checks that EdgeListLoader reads well-formed
+ * edge lists exactly, with read() and readParallel() agreeing, and that it
+ * rejects malformed lines and numbers too large for an int with an
+ * IOException naming the offending line.
+ */
+
+import graph.*;
+import java.io.*;
+import java.util.*;
+
+public class EdgeListLoaderTest {
+
+  private static boolean ok = true;
+
+  private static File write(String text) throws IOException {
+    File file = File.createTempFile("edges", ".txt");
+    file.deleteOnExit();
+    Writer out = new OutputStreamWriter(new FileOutputStream(file), "US-ASCII");
+    try {
+      out.write(text);
+    } finally {
+      out.close();
+    }
+    return file;
+  }
+
+  private static String describe(EdgeBuffer edges) {
+    StringBuilder s = new StringBuilder();
+    for (int i = 0; i < edges.size(); i++) {
+      s.append(edges.ends1()[i]).append(' ').append(edges.ends2()[i])
+       .append(' ').append(edges.weights()[i]).append(';');
+    }
+    return s.toString();
+  }
+
+  /**
+   * expectEdges() checks that "text" reads as the edges "expected", written
+   * "u v w;" per edge, with both read() and readParallel().
+   */
+  private static void expectEdges(String name, String text, String expected)
+      throws IOException {
+    File file = write(text);
+    String serial = describe(EdgeListLoader.read(file));
+    String parallel = describe(EdgeListLoader.readParallel(file, 3));
+    if (!serial.equals(expected) || !parallel.equals(expected)) {
+      System.out.println(name + ":  read() gives \"" + serial +
+                         "\" and readParallel() \"" + parallel +
+                         "\"; should give \"" + expected + "\".");
+      ok = false;
+    }
+    file.delete();
+  }
+
+  /**
+   * expectError() checks that reading "text" throws an IOException whose
+   * message starts with "line <line>:".
+   */
+  private static void expectError(String name, String text, int line)
+      throws IOException {
+    File file = write(text);
+    try {
+      EdgeListLoader.read(file);
+      System.out.println(name + ":  read() should throw an IOException.");
+      ok = false;
+    } catch (IOException e) {
+      if (!e.getMessage().startsWith("line " + line + ":")) {
+        System.out.println(name + ":  the message \"" + e.getMessage() +
+                           "\" should name line " + line + ".");
+        ok = false;
+      }
+    }
+    file.delete();
+  }
+
+  public static void main(String[] args) throws IOException {
+    System.out.println("Running EdgeListLoader test.");
+
+    expectEdges("Well-formed list",
+                "# comment\n% comment\n\n0 1 5\n1\t2\t-3\r\n  2 2 0  \n" +
+                "3 4 2147483647\n4 5 -2147483648\n2147483647 0 7",
+                "0 1 5;1 2 -3;2 2 0;3 4 2147483647;4 5 -2147483648;" +
+                "2147483647 0 7;");
+    expectEdges("Empty list", "", "");
+    expectEdges("Comments only", "# nothing\n\n", "");
+
+    expectError("Vertex wrapping to 1", "0 1 5\n4294967297 2 5\n", 2);
+    expectError("Vertex wrapping negative", "0 1 5\n1 2 3\n3000000000 1 5\n", 3);
+    expectError("Vertex just past int", "2147483648 0 1\n", 1);
+    expectError("Weight just past int", "0 1 2147483648\n", 1);
+    expectError("Weight just below int", "0 1 -2147483649\n", 1);
+    expectError("Very long number", "0 1 5\n0 99999999999999999999999 5\n", 2);
+    expectError("Missing weight", "0 1 5\n0 1\n", 2);
+    expectError("Negative vertex", "0 1 5\n\n-1 2 3\n", 3);
+    expectError("Extra field", "0 1 5 6\n", 1);
+    expectError("Letters", "# header\nu v w\n", 2);
+    expectError("Trailing garbage", "0 1 5x\n", 1);
+
+    // A list several blocks long, so that readParallel() splits it into
+    // chunks; errors must name the line in the whole file.
+    StringBuilder big = new StringBuilder();
+    int lines = 300000;
+    for (int i = 0; i < lines; i++) {
+      big.append(i).append(' ').append(i + 1).append(' ').append(i % 7 - 3)
+         .append('\n');
+    }
+    File file = write(big.toString());
+    EdgeBuffer serial = EdgeListLoader.read(file);
+    EdgeBuffer parallel = EdgeListLoader.readParallel(file, 4);
+    if (serial.size() != lines || !describe(serial).equals(describe(parallel))) {
+      System.out.println("Long list:  read() and readParallel() disagree.");
+      ok = false;
+    }
+    file.delete();
+    int[] badLines = {lines - 5, lines / 2, 7};
+    for (int k = 0; k < badLines.length; k++) {
+      int bad = badLines[k];
+      int at = 0;
+      for (int i = 1; i < bad; i++) {
+        at = big.indexOf("\n", at) + 1;
+      }
+      StringBuilder broken = new StringBuilder(big);
+      broken.insert(at, "12 x 4\n");
+      file = write(broken.toString());
+      try {
+        EdgeListLoader.readParallel(file, 4);
+        System.out.println("Long list:  readParallel() should reject line " +
+                           bad + ".");
+        ok = false;
+      } catch (IOException e) {
+        if (!e.getMessage().startsWith("line " + bad + ":")) {
+          System.out.println("Long list:  readParallel()'s message \"" +
+                             e.getMessage() + "\" should name line " + bad +
+                             ".");
+          ok = false;
+        }
+      }
+      file.delete();
+    }
+
+    file = write("0 1 5\n");
+    for (int threads = -1; threads <= 0; threads++) {
+      try {
+        EdgeListLoader.readParallel(file, threads);
+        System.out.println("readParallel() should reject " + threads +
+                           " threads.");
+        ok = false;
+      } catch (IllegalArgumentException e) {
+      }
+    }
+    file.delete();
+
+    try {
+      new EdgeBuffer().add(-1, 0, 1);
+      System.out.println("EdgeBuffer.add() should reject a negative vertex.");
+      ok = false;
+    } catch (IllegalArgumentException e) {
+    }
+
+    if (ok) {
+      System.out.println("EdgeListLoader test passed.");
+    } else {
+      System.out.println("EdgeListLoader test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/* GraphFileTest.java */
+
+/**
+ * The GraphFileTest class writes random IntWUGraphs (with negative weights,
+ * self-edges and vertices of degree zero) with GraphFile, maps and reads
+ * them back, and checks every vertex's neighbors and weights against the
+ * original.  It also checks that files with inconsistent headers are
+ * rejected with an IOException.
+ */
+
+import graph.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class GraphFileTest {
+
+  private static boolean ok = true;
+
+  /**
+   * sameGraph() returns null if g and h have the same vertices, edges and
+   * weights (in any neighbor order), or else a description of a difference.
+   */
+  static String sameGraph(IntGraph g, IntGraph h) {
+    if (g.vertexCount() != h.vertexCount()) {
+      return "vertexCount() is " + h.vertexCount() + ", not " + g.vertexCount();
+    }
+    if (g.edgeCount() != h.edgeCount()) {
+      return "edgeCount() is " + h.edgeCount() + ", not " + g.edgeCount();
+    }
+    for (int v = 0; v < g.vertexCount(); v++) {
+      if (g.degree(v) != h.degree(v)) {
+        return "degree(" + v + ") is " + h.degree(v) + ", not " + g.degree(v);
+      }
+      if (!Arrays.equals(neighbors(g, v), neighbors(h, v))) {
+        return "the neighbors of vertex " + v + " differ";
+      }
+    }
+    return null;
+  }
+
+  /**
+   * neighbors() returns the (neighbor, weight) pairs of v, packed into
+   * longs and sorted.
+   */
+  static long[] neighbors(IntGraph g, int v) {
+    int deg = g.degree(v);
+    int[] neighborList = new int[deg];
+    int[] weightList = new int[deg];
+    g.copyNeighbors(v, neighborList, weightList);
+    long[] pairs = new long[deg];
+    for (int i = 0; i < deg; i++) {
+      pairs[i] = ((long) neighborList[i] << 32) | (weightList[i] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(pairs);
+    return pairs;
+  }
+
+  /**
+   * randomGraph() returns a graph on n vertices with about "edges" random
+   * edges, leaving every fourth vertex isolated.  Weights span the whole
+   * int range, extremes included.
+   */
+  static IntWUGraph randomGraph(Random random, int n, int edges) {
+    IntWUGraph g = new IntWUGraph(n);
+    int[] extremes = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0};
+    for (int k = 0; k < edges; k++) {
+      int u = random.nextInt(n);
+      int v = random.nextInt(5) == 0 ? u : random.nextInt(n);
+      if (u % 4 == 3 || v % 4 == 3) {
+        continue;
+      }
+      int w = random.nextInt(8) == 0 ? extremes[random.nextInt(4)]
+                                      : random.nextInt(2001) - 1000;
+      g.addEdge(u, v, w);
+    }
+    return g;
+  }
+
+  private static String roundTrip(IntGraph g) throws IOException {
+    File file = File.createTempFile("graphfile", ".wug");
+    file.deleteOnExit();
+    GraphFile.write(g, file);
+    String problem = sameGraph(g, GraphFile.map(file));
+    if (problem != null) {
+      return "mapped graph: " + problem;
+    }
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      problem = sameGraph(g, GraphFile.read(channel));
+    } finally {
+      channel.close();
+    }
+    file.delete();
+    return problem == null ? null : "read graph: " + problem;
+  }
+
+  /**
+   * damaged() returns a copy of the graph file "file" with the "size"-byte
+   * little-endian number at "pos" replaced by x, and its last "cut" bytes
+   * removed.
+   */
+  private static File damaged(File file, long pos, int size, long x, int cut)
+      throws IOException {
+    File copy = File.createTempFile("graphfile", ".wug");
+    copy.deleteOnExit();
+    FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    FileChannel out = FileChannel.open(copy.toPath(), StandardOpenOption.WRITE);
+    try {
+      in.transferTo(0, in.size() - cut, out);
+      ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+      if (size == 4) {
+        buf.putInt((int) x);
+      } else {
+        buf.putLong(x);
+      }
+      buf.flip();
+      out.write(buf, pos);
+    } finally {
+      in.close();
+      out.close();
+    }
+    return copy;
+  }
+
+  /**
+   * expectRejected() checks that both map() and read() reject "file" with
+   * an IOException, then deletes it.
+   */
+  private static void expectRejected(String name, File file) {
+    for (int mapped = 0; mapped < 2; mapped++) {
+      try {
+        if (mapped == 1) {
+          GraphFile.map(file);
+        } else {
+          FileChannel channel = FileChannel.open(file.toPath(),
+                                                 StandardOpenOption.READ);
+          try {
+            GraphFile.read(channel);
+          } finally {
+            channel.close();
+          }
+        }
+        System.out.println(name + ":  " + (mapped == 1 ? "map()" : "read()") +
+                           " should throw an IOException.");
+        ok = false;
+      } catch (IOException e) {
+      } catch (RuntimeException e) {
+        System.out.println(name + ":  " + (mapped == 1 ? "map()" : "read()") +
+                           " throws " + e + " instead of an IOException.");
+        ok = false;
+      } catch (OutOfMemoryError e) {
+        System.out.println(name + ":  " + (mapped == 1 ? "map()" : "read()") +
+                           " runs out of memory.");
+        ok = false;
+      }
+    }
+    file.delete();
+  }
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(31);
+    System.out.println("Running GraphFile test.");
+
+    IntGraph[] graphs = {
+      new IntWUGraph(0),
+      new IntWUGraph(7),
+      randomGraph(random, 1, 3),
+      randomGraph(random, 50, 200),
+      randomGraph(random, 1000, 5000)
+    };
+    for (int i = 0; i < graphs.length; i++) {
+      String problem = roundTrip(graphs[i]);
+      if (problem == null) {
+        problem = roundTrip(CSRGraph.copyOf(graphs[i]));
+      }
+      if (problem != null) {
+        System.out.println("Graph " + i + " (" + graphs[i].vertexCount() +
+                           " vertices):  " + problem + ".");
+        ok = false;
+      }
+    }
+
+    // Header fields:  n at byte 8, the edge count at 12, the entry count at
+    // 16, then the n + 1 offsets from byte 64.
+    IntWUGraph g = randomGraph(random, 50, 200);
+    g.addEdge(0, 0, 1);
+    int n = g.vertexCount();
+    long entries = 2L * g.edgeCount() - 1;
+    for (int v = 1; v < n; v++) {
+      if (g.isEdge(v, v)) {
+        entries--;
+      }
+    }
+    File file = File.createTempFile("graphfile", ".wug");
+    file.deleteOnExit();
+    GraphFile.write(g, file);
+    expectRejected("Negative vertex count", damaged(file, 8, 4, -1, 0));
+    expectRejected("Vertex count past the file",
+                   damaged(file, 8, 4, Integer.MAX_VALUE, 0));
+    expectRejected("Negative edge count", damaged(file, 12, 4, -1, 0));
+    expectRejected("Edge count too large for the entries",
+                   damaged(file, 12, 4, entries + 1, 0));
+    expectRejected("Negative entry count", damaged(file, 16, 8, -1, 0));
+    expectRejected("Entry count too large for the edges",
+                   damaged(file, 16, 8, 2L * g.edgeCount() + 2, 0));
+    expectRejected("Last offset not the entry count",
+                   damaged(file, 64 + 8L * n, 8, entries - 2, 0));
+    expectRejected("First offset not zero", damaged(file, 64, 8, 1, 0));
+    expectRejected("Truncated file", damaged(file, 8, 4, n, 4));
+    file.delete();
+
+    if (ok) {
+      System.out.println("GraphFile test passed.");
+    } else {
+      System.out.println("GraphFile test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/* GraphGeneratorTest.java */
+
+/**
+ * The GraphGeneratorTest class builds graphs with every GraphGenerator
+ * generator and WeightDistribution and checks that the same seed gives the
+ * same edges, that the graphs have the vertices and edges asked for, with
+ * no self-edges and no edge listed twice, that the grid, complete and
+ * (wide enough) geometric graphs are connected, and that every weight is in
+ * its distribution's range.
+ */
+
+import gen.*;
+import graph.*;
+import set.*;
+import java.util.*;
+
+public class GraphGeneratorTest {
+
+  private static boolean ok = true;
+
+  /**
+   * A Build makes one graph from a seed.
+   */
+  private static abstract class Build {
+    String name;
+    int n;
+
+    Build(String name, int n) {
+      this.name = name;
+      this.n = n;
+    }
+
+    abstract EdgeBuffer edges(long seed);
+  }
+
+  private static void fail(String name, String problem) {
+    if (ok) {
+      System.out.println(name + ":  " + problem + ".");
+      ok = false;
+    }
+  }
+
+  /**
+   * sameEdges() returns true if a and b hold the same edges in the same
+   * order.
+   */
+  private static boolean sameEdges(EdgeBuffer a, EdgeBuffer b) {
+    int m = a.size();
+    return m == b.size() &&
+      Arrays.equals(Arrays.copyOf(a.ends1(), m), Arrays.copyOf(b.ends1(), m)) &&
+      Arrays.equals(Arrays.copyOf(a.ends2(), m), Arrays.copyOf(b.ends2(), m)) &&
+      Arrays.equals(Arrays.copyOf(a.weights(), m),
+                    Arrays.copyOf(b.weights(), m));
+  }
+
+  /**
+   * check() builds "build" twice from one seed and checks that it is
+   * reproducible and simple, that it has "m" edges (unless m is negative),
+   * that it is connected if "connected", and that its weights are in
+   * lo...hi.
+   */
+  private static void check(Build build, int m, boolean connected, long lo,
+                            long hi) {
+    String name = build.name;
+    EdgeBuffer edges = build.edges(44);
+    if (!sameEdges(edges, build.edges(44))) {
+      fail(name, "the same seed gives different edges");
+    }
+    if (m >= 0 && edges.size() != m) {
+      fail(name, "there are " + edges.size() + " edges, not " + m);
+    }
+
+    int n = build.n;
+    HashSet<Long> pairs = new HashSet<Long>();
+    DisjointSets sets = new DisjointSets(n);
+    int components = n;
+    for (int i = 0; i < edges.size(); i++) {
+      int u = edges.ends1()[i];
+      int v = edges.ends2()[i];
+      int w = edges.weights()[i];
+      if (u < 0 || u >= n || v < 0 || v >= n) {
+        fail(name, "edge " + i + " (" + u + ", " + v + ") is not on " + n +
+             " vertices");
+        return;
+      }
+      if (u == v) {
+        fail(name, "edge " + i + " is a self-edge on " + u);
+      }
+      long key = ((long) Math.min(u, v) << 32) | Math.max(u, v);
+      if (!pairs.add(Long.valueOf(key))) {
+        fail(name, "edge (" + u + ", " + v + ") is listed twice");
+      }
+      if (w < lo || w > hi) {
+        fail(name, "edge " + i + " has weight " + w + ", not in " + lo +
+             "..." + hi);
+      }
+      int r1 = sets.find(u);
+      int r2 = sets.find(v);
+      if (r1 != r2) {
+        sets.union(r1, r2);
+        components--;
+      }
+    }
+    if (connected && components != 1) {
+      fail(name, "the graph has " + components + " components");
+    }
+
+    WUGraph g = GraphGenerator.toWUGraph(edges, n);
+    CSRGraph c = GraphGenerator.toCSRGraph(edges, n);
+    if (g.vertexCount() != n || g.edgeCount() != edges.size() ||
+        c.vertexCount() != n || c.edgeCount() != edges.size()) {
+      fail(name, "the graphs built have " + g.vertexCount() + " and " +
+           c.vertexCount() + " vertices, " + g.edgeCount() + " and " +
+           c.edgeCount() + " edges");
+    }
+  }
+
+  /**
+   * checkMean() checks that the mean of 100000 draws from "weights" is
+   * within "tolerance" of "mean".
+   */
+  private static void checkMean(String name, WeightDistribution weights,
+                                double mean, double tolerance) {
+    SplittableRandom random = new SplittableRandom(44);
+    double sum = 0.0;
+    for (int i = 0; i < 100000; i++) {
+      sum += weights.next(random);
+    }
+    if (Math.abs(sum / 100000 - mean) > tolerance) {
+      fail(name, "the mean weight is " + sum / 100000 + ", not " + mean);
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running GraphGenerator test.");
+
+    final WeightDistribution uniform = WeightDistribution.uniform(-5, 10);
+    final WeightDistribution constant = WeightDistribution.constant(7);
+    final WeightDistribution exponential = WeightDistribution.exponential(50.0);
+    final WeightDistribution normal = WeightDistribution.normal(-3.0, 20.0);
+    long min = Integer.MIN_VALUE;
+    long max = Integer.MAX_VALUE;
+
+    check(new Build("Sparse G(n, m)", 1000) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.gnm(1000, 3000, uniform, seed);
+        }
+      }, 3000, false, -5, 9);
+    check(new Build("Dense G(n, m)", 60) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.gnm(60, 1500, exponential, seed);
+        }
+      }, 1500, false, 0, max);
+    check(new Build("Empty G(n, m)", 10) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.gnm(10, 0, uniform, seed);
+        }
+      }, 0, false, -5, 9);
+    check(new Build("Grid", 35 * 17) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.grid(35, 17, normal, seed);
+        }
+      }, 2 * 35 * 17 - 35 - 17, true, min, max);
+    check(new Build("R-MAT", 1 << 10) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.rmat(10, 4000, uniform, seed);
+        }
+      }, 4000, false, -5, 9);
+    check(new Build("Complete", 50) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.complete(50, constant, seed);
+        }
+      }, 50 * 49 / 2, true, 7, 7);
+    check(new Build("Geometric", 2000) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.geometric(2000, 0.05, 1000, seed);
+        }
+      }, -1, false, 0, 49);
+    // No two points of the unit square are 1.5 apart, so every pair is close.
+    check(new Build("Wide geometric", 40) {
+        EdgeBuffer edges(long seed) {
+          return GraphGenerator.geometric(40, 1.5, normal, seed);
+        }
+      }, 40 * 39 / 2, true, min, max);
+
+    // G(n, m) with more edges than pairs, and R-MAT outside its scales
+    try {
+      GraphGenerator.gnm(5, 11, uniform, 44);
+      fail("G(5, 11)", "no IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+    }
+    try {
+      GraphGenerator.rmat(0, 1, uniform, 44);
+      fail("R-MAT of scale 0", "no IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+    }
+
+    checkMean("Exponential weights", exponential, 49.5, 1.5);
+    checkMean("Normal weights", normal, -3.0, 0.5);
+    checkMean("Uniform weights", uniform, 2.0, 0.1);
+
+    if (ok) {
+      System.out.println("GraphGenerator test passed.");
+    } else {
+      System.out.println("GraphGenerator test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/* GraphSnapshotTest.java */
+
+/**
+ * The GraphSnapshotTest class writes random graphs (with negative weights,
+ * self-edges and vertices of degree zero) with GraphSnapshot, maps them back
+ * as CompressedGraphs, and checks every vertex's neighbors and weights
+ * against the original.  See GraphFileTest for the graphs and the
+ * comparison.
+ */
+
+import graph.*;
+import java.io.*;
+import java.util.*;
+
+public class GraphSnapshotTest {
+
+  private static File snapshot(IntGraph g) throws IOException {
+    File file = File.createTempFile("snapshot", ".wugs");
+    file.deleteOnExit();
+    GraphSnapshot.write(g, file);
+    return file;
+  }
+
+  /**
+   * increasing() returns true if every vertex's neighbors in g come out of
+   * copyNeighbors() in increasing order, as a CompressedGraph promises.
+   */
+  private static boolean increasing(IntGraph g) {
+    for (int v = 0; v < g.vertexCount(); v++) {
+      int[] neighborList = new int[g.degree(v)];
+      g.copyNeighbors(v, neighborList, new int[neighborList.length]);
+      for (int i = 1; i < neighborList.length; i++) {
+        if (neighborList[i - 1] >= neighborList[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  public static void main(String[] args) throws IOException {
+    boolean ok = true;
+    Random random = new Random(34);
+    System.out.println("Running GraphSnapshot test.");
+
+    IntGraph[] graphs = {
+      new IntWUGraph(0),
+      new IntWUGraph(7),
+      GraphFileTest.randomGraph(random, 1, 3),
+      GraphFileTest.randomGraph(random, 50, 200),
+      GraphFileTest.randomGraph(random, 1000, 5000)
+    };
+    for (int i = 0; i < graphs.length; i++) {
+      File file = snapshot(graphs[i]);
+      CompressedGraph c = GraphSnapshot.map(file);
+      String problem = GraphFileTest.sameGraph(graphs[i], c);
+      if (problem == null && !increasing(c)) {
+        problem = "neighbors are not in increasing order";
+      }
+      if (problem != null) {
+        System.out.println("Graph " + i + " (" + graphs[i].vertexCount() +
+                           " vertices):  " + problem + ".");
+        ok = false;
+      }
+      file.delete();
+    }
+
+    // A WUGraph whose Integer vertices skip some ids; the missing ids must
+    // come back as vertices of degree zero.
+    WUGraph g = new WUGraph();
+    IntWUGraph expected = new IntWUGraph(30);
+    for (int v = 0; v < 30; v += 3) {
+      g.addVertex(Integer.valueOf(v));
+    }
+    for (int k = 0; k < 60; k++) {
+      int u = 3 * random.nextInt(10);
+      int v = 3 * random.nextInt(10);
+      int w = random.nextInt(41) - 20;
+      g.addEdge(Integer.valueOf(u), Integer.valueOf(v), w);
+      expected.addEdge(u, v, w);
+    }
+    g.addVertex(Integer.valueOf(29));
+    File file = File.createTempFile("snapshot", ".wugs");
+    file.deleteOnExit();
+    GraphSnapshot.write(g, file);
+    String problem = GraphFileTest.sameGraph(expected, GraphSnapshot.map(file));
+    if (problem != null) {
+      System.out.println("WUGraph snapshot:  " + problem + ".");
+      ok = false;
+    }
+    file.delete();
+
+    if (ok) {
+      System.out.println("GraphSnapshot test passed.");
+    } else {
+      System.out.println("GraphSnapshot test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/* HashTableTest.java */
+
+/**
+ * The HashTableTest class checks the HashStats that HashTableChained.stats()
+ * reports against the entries inserted and found, checks that makeEmpty()
+ * starts the counters again from zero, and calls stats() from another
+ * thread while the table grows and is emptied.  It also registers and
+ * unregisters a HashTableMonitor.
+ */
+
+import dict.*;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+public class HashTableTest {
+
+  private static boolean ok = true;
+
+  private static void check(String what, boolean condition) {
+    if (!condition && ok) {
+      System.out.println(what + ".");
+      ok = false;
+    }
+  }
+
+  /**
+   * checkStats() checks that "s" describes a table of "entries" entries:
+   * the histogram covers every bucket and every entry, and ends at the
+   * longest chain.
+   */
+  private static void checkStats(String what, HashStats s, int entries) {
+    int buckets = 0;
+    int inChains = 0;
+    for (int k = 0; k < s.chainHistogram.length; k++) {
+      buckets += s.chainHistogram[k];
+      inChains += k * s.chainHistogram[k];
+    }
+    check(what + ":  " + s + " does not hold " + entries + " entries",
+          s.numEntries == entries && inChains == entries);
+    check(what + ":  the histogram covers " + buckets + " buckets, not " +
+          s.numBuckets, buckets == s.numBuckets);
+    check(what + ":  the histogram has length " + s.chainHistogram.length +
+          " with a longest chain of " + s.maxChain,
+          s.chainHistogram.length == s.maxChain + 1 &&
+          s.chainHistogram[s.maxChain] > 0);
+    check(what + ":  the load factor is " + s.loadFactor,
+          s.loadFactor == (double) entries / s.numBuckets);
+  }
+
+  /**
+   * A Reader takes snapshots of a table until told to stop, and keeps the
+   * first exception one throws.
+   */
+  private static class Reader extends Thread {
+    HashTableChained table;
+    volatile boolean done;
+    Throwable failure;
+
+    Reader(HashTableChained table) {
+      this.table = table;
+    }
+
+    public void run() {
+      try {
+        while (!done) {
+          table.stats();
+        }
+      } catch (Throwable e) {
+        failure = e;
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    System.out.println("Running HashTableChained test.");
+
+    HashTableChained table = new HashTableChained(10);
+    checkStats("An empty table", table.stats(), 0);
+    for (int i = 0; i < 1000; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+    // Every key collides in a single bucket of this table.
+    HashTableChained same = new HashTableChained(10);
+    for (int i = 0; i < 5; i++) {
+      same.insert("key", Integer.valueOf(i));
+    }
+    for (int i = 0; i < 2000; i++) {
+      table.find(Integer.valueOf(i));
+    }
+    HashStats s = table.stats();
+    checkStats("After 1000 insertions", s, 1000);
+    check("After 1000 insertions:  " + s.resizes + " resizes",
+          s.resizes > 0 && s.resizeNanos > 0);
+    check("After 2000 finds:  " + s.finds + " finds", s.finds == 2000);
+    check("After 2000 finds:  " + s.avgProbes + " probes per find",
+          s.avgProbes > 0.0);
+    s = same.stats();
+    checkStats("Five entries with one key", s, 5);
+    check("Five entries with one key:  the longest chain has " + s.maxChain,
+          s.maxChain == 5 && s.collisions == 4);
+
+    table.makeEmpty();
+    s = table.stats();
+    checkStats("After makeEmpty()", s, 0);
+    check("After makeEmpty():  " + s + " finds=" + s.finds,
+          s.maxChain == 0 && s.collisions == 0 && s.resizes == 0 &&
+          s.resizeNanos == 0 && s.finds == 0 && s.avgProbes == 0.0);
+
+    // stats() from another thread while the table changes never fails.
+    Reader reader = new Reader(table);
+    reader.start();
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 20000; i++) {
+        table.insert(Integer.valueOf(i), null);
+      }
+      table.makeEmpty();
+    }
+    reader.done = true;
+    reader.join();
+    check("stats() during changes throws " + reader.failure,
+          reader.failure == null);
+
+    ObjectName name = HashTableMonitor.register(table, "HashTableTest");
+    check("register() fails", name != null &&
+          ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    check("unregister() fails", HashTableMonitor.unregister(name) &&
+          !ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    check("A second unregister() succeeds",
+          !HashTableMonitor.unregister(name));
+
+    if (ok) {
+      System.out.println("HashTableChained test passed.");
+    } else {
+      System.out.println("HashTableChained test FAILED.");
+    }
+  }
+}
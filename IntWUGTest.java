@@ -0,0 +1,165 @@
+/* IntWUGTest.java */
+
+/**
+ * The IntWUGTest class tests the IntWUGraph class, and Kruskal's algorithm
+ * on IntWUGraphs and CSRGraphs, against a WUGraph built from the same random
+ * edges.  Weights may be negative.
+ */
+
+import graph.*;
+import graphalg.*;
+import java.util.*;
+
+public class IntWUGTest {
+
+  private static final int VERTICES = 40;
+  private static final int MAXINT = 100;
+
+  private static int totalWeight(WUGraph t) {
+    int sum = 0;
+    Object[] vertices = t.getVertices();
+    for (int i = 0; i < vertices.length; i++) {
+      Neighbors neigh = t.getNeighbors(vertices[i]);
+      if (neigh != null) {
+        for (int j = 0; j < neigh.weightList.length; j++) {
+          sum += neigh.weightList[j];
+        }
+      }
+    }
+    return sum / 2;
+  }
+
+  private static int totalWeight(IntWUGraph t) {
+    int sum = 0;
+    for (int i = 0; i < t.vertexCount(); i++) {
+      IntNeighbors neigh = t.getNeighbors(i);
+      if (neigh != null) {
+        for (int j = 0; j < neigh.weightList.length; j++) {
+          sum += neigh.weightList[j];
+        }
+      }
+    }
+    return sum / 2;
+  }
+
+  public static void main(String[] args) {
+    int i, j;
+    boolean ok = true;
+    Random random = new Random(5);
+    WUGraph g = new WUGraph();
+    IntWUGraph h = new IntWUGraph(VERTICES);
+
+    System.out.println("Running IntWUGraph test.");
+    Integer[] vertArray = new Integer[VERTICES];
+    for (i = 0; i < VERTICES; i++) {
+      vertArray[i] = Integer.valueOf(i);
+      g.addVertex(vertArray[i]);
+    }
+
+    System.out.println("Adding and removing random edges.");
+    for (int k = 0; k < 20 * VERTICES; k++) {
+      i = random.nextInt(VERTICES);
+      j = random.nextInt(VERTICES);
+      if (random.nextInt(4) == 0) {
+        g.removeEdge(vertArray[i], vertArray[j]);
+        h.removeEdge(i, j);
+      } else {
+        int w = random.nextInt(MAXINT) - MAXINT / 2;
+        g.addEdge(vertArray[i], vertArray[j], w);
+        h.addEdge(i, j, w);
+      }
+    }
+
+    if (g.edgeCount() != h.edgeCount()) {
+      System.out.println("edgeCount() returns " + h.edgeCount() +
+                         " but should return " + g.edgeCount() + ".");
+      ok = false;
+    }
+    for (i = 0; i < VERTICES; i++) {
+      if (g.degree(vertArray[i]) != h.degree(i)) {
+        System.out.println("degree(" + i + ") returns " + h.degree(i) +
+                           " but should return " + g.degree(vertArray[i]) + ".");
+        ok = false;
+      }
+      for (j = 0; j < VERTICES; j++) {
+        if (g.isEdge(vertArray[i], vertArray[j]) != h.isEdge(i, j) ||
+            g.weight(vertArray[i], vertArray[j]) != h.weight(i, j)) {
+          System.out.println("Edge (" + i + ", " + j + ") differs.");
+          ok = false;
+        }
+      }
+    }
+
+    System.out.println("Finding the minimum spanning trees.");
+    WUGraph t = Kruskal.minSpanTree(g);
+    IntWUGraph u = Kruskal.minSpanTree(h);
+    if (t.edgeCount() != u.edgeCount() || totalWeight(t) != totalWeight(u)) {
+      System.out.println("IntWUGraph MST has " + u.edgeCount() +
+                         " edges of total weight " + totalWeight(u) +
+                         "; should have " + t.edgeCount() + " of weight " +
+                         totalWeight(t) + ".");
+      ok = false;
+    }
+    IntWUGraph c = Kruskal.minSpanTree(CSRGraph.copyOf(h));
+    if (c.edgeCount() != u.edgeCount() || totalWeight(c) != totalWeight(u)) {
+      System.out.println("CSRGraph MST has " + c.edgeCount() +
+                         " edges of total weight " + totalWeight(c) +
+                         "; should have " + u.edgeCount() + " of weight " +
+                         totalWeight(u) + ".");
+      ok = false;
+    }
+
+    String problem = MstVerifier.verify(g, t);
+    if (problem == null) {
+      problem = MstVerifier.verify(h, u);
+    }
+    if (problem != null) {
+      System.out.println("MstVerifier rejects the MST: " + problem + ".");
+      ok = false;
+    }
+
+    System.out.println("Finding the maximum spanning trees.");
+    t = Kruskal.minSpanTree(g, WeightTransform.MAXIMUM);
+    u = Kruskal.minSpanTree(h, WeightTransform.MAXIMUM);
+    if (t.edgeCount() != u.edgeCount() || totalWeight(t) != totalWeight(u)) {
+      System.out.println("IntWUGraph maximum spanning tree has " +
+                         u.edgeCount() + " edges of total weight " +
+                         totalWeight(u) + "; should have " + t.edgeCount() +
+                         " of weight " + totalWeight(t) + ".");
+      ok = false;
+    }
+    problem = MstVerifier.verify(h, u, WeightTransform.MAXIMUM);
+    if (problem != null) {
+      System.out.println("MstVerifier rejects the maximum spanning tree: " +
+                         problem + ".");
+      ok = false;
+    }
+
+    System.out.println("Finding a tree whose weights are all negative.");
+    // The minimum spanning tree of this triangle is {(0, 1), (0, 2)}, weight
+    // -6; ordering negative weights after positive ones gives -2 instead.
+    IntWUGraph tri = new IntWUGraph(3);
+    tri.addEdge(0, 1, -5);
+    tri.addEdge(1, 2, 3);
+    tri.addEdge(0, 2, -1);
+    if (Kruskal.mst(tri).totalWeight() != -6 ||
+        Kruskal.mst(CSRGraph.copyOf(tri)).totalWeight() != -6 ||
+        totalWeight(Kruskal.minSpanTree(tri)) != -6 ||
+        Kruskal.minSpanTree(tri).isEdge(1, 2)) {
+      System.out.println("The triangle's MST should have weight -6 and " +
+                         "omit edge (1, 2).");
+      ok = false;
+    }
+    if (tri.copyNeighbors(-1, new int[3], new int[3]) != 0 ||
+        tri.copyNeighbors(3, new int[3], new int[3]) != 0) {
+      System.out.println("copyNeighbors() of a nonvertex should return 0.");
+      ok = false;
+    }
+
+    if (ok) {
+      System.out.println("IntWUGraph test passed.");
+    } else {
+      System.out.println("IntWUGraph test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/* JfrEventsTest.java */
+
+/**
+ * The JfrEventsTest class records a few WUGraph changes, one
+ * HashTableChained resize and one run of Kruskal's algorithm with Java
+ * Flight Recorder, and checks that the recording holds one event of the
+ * right kind, with the right fields, for each:  graph.WUGraphMutation,
+ * dict.HashTableResize, and graphalg.Kruskal (from a JfrKruskalListener).
+ */
+
+import dict.*;
+import graph.*;
+import graphalg.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrEventsTest {
+
+  private static boolean ok = true;
+
+  private static void check(String what, boolean condition) {
+    if (!condition && ok) {
+      System.out.println(what + ".");
+      ok = false;
+    }
+  }
+
+  /**
+   * named() returns the events in "events" of type "name".
+   */
+  private static List<RecordedEvent> named(List<RecordedEvent> events,
+                                           String name) {
+    List<RecordedEvent> list = new ArrayList<RecordedEvent>();
+    for (int i = 0; i < events.size(); i++) {
+      if (events.get(i).getEventType().getName().equals(name)) {
+        list.add(events.get(i));
+      }
+    }
+    return list;
+  }
+
+  public static void main(String[] args) throws IOException {
+    System.out.println("Running JFR events test.");
+
+    Recording recording = new Recording();
+    recording.enable("graph.WUGraphMutation").withThreshold(Duration.ZERO);
+    recording.enable("dict.HashTableResize");
+    recording.enable("graphalg.Kruskal");
+    recording.start();
+
+    // Seven changes, none of which resizes the graph's own tables
+    WUGraph g = new WUGraph();
+    for (int v = 0; v < 3; v++) {
+      g.addVertex(Integer.valueOf(v));
+    }
+    g.addEdge(Integer.valueOf(0), Integer.valueOf(1), 5);
+    g.addEdge(Integer.valueOf(1), Integer.valueOf(2), 6);
+    g.removeEdge(Integer.valueOf(0), Integer.valueOf(1));
+    g.removeVertex(Integer.valueOf(2));
+
+    // 11 buckets; the ninth insert() finds the load factor over 0.7.
+    HashTableChained table = new HashTableChained(10);
+    for (int i = 0; i < 9; i++) {
+      table.insert(Integer.valueOf(i), null);
+    }
+
+    // A path 0-1-2-3 and a heavier chord, which the scan never reaches
+    IntWUGraph h = new IntWUGraph(4);
+    h.addEdge(0, 1, 1);
+    h.addEdge(1, 2, 2);
+    h.addEdge(2, 3, 3);
+    h.addEdge(0, 3, 4);
+    KruskalListener old = Kruskal.getListener();
+    Kruskal.setListener(new JfrKruskalListener());
+    try {
+      Kruskal.mst(h);
+    } finally {
+      Kruskal.setListener(old);
+    }
+
+    recording.stop();
+    Path file = Files.createTempFile("events", ".jfr");
+    List<RecordedEvent> events;
+    try {
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      recording.close();
+      Files.delete(file);
+    }
+
+    // The mutations, as "operation affected vertices edges", in any order
+    List<RecordedEvent> mutations = named(events, "graph.WUGraphMutation");
+    List<String> seen = new ArrayList<String>();
+    for (int i = 0; i < mutations.size(); i++) {
+      RecordedEvent e = mutations.get(i);
+      seen.add(e.getString("operation") + " " + e.getInt("affected") + " " +
+               e.getInt("vertexCount") + " " + e.getInt("edgeCount"));
+      check("A WUGraphMutation event has no stack trace",
+            e.getStackTrace() != null);
+    }
+    List<String> expected = Arrays.asList(
+      "addVertex 0 1 0", "addVertex 0 2 0", "addVertex 0 3 0",
+      "addEdge 1 3 1", "addEdge 1 3 2", "removeEdge 1 3 1",
+      "removeVertex 1 2 0");
+    Collections.sort(seen);
+    List<String> sorted = new ArrayList<String>(expected);
+    Collections.sort(sorted);
+    check("The WUGraphMutation events are " + seen + ", not " + sorted,
+          seen.equals(sorted));
+
+    List<RecordedEvent> resizes = named(events, "dict.HashTableResize");
+    check("There are " + resizes.size() + " HashTableResize events, not 1",
+          resizes.size() == 1);
+    if (resizes.size() == 1) {
+      RecordedEvent e = resizes.get(0);
+      check("The HashTableResize event goes from " + e.getInt("oldBuckets") +
+            " to " + e.getInt("newBuckets") + " buckets with " +
+            e.getInt("entries") + " entries, not from 11 to 23 with 8",
+            e.getInt("oldBuckets") == 11 && e.getInt("newBuckets") == 23 &&
+            e.getInt("entries") == 8);
+    }
+
+    List<RecordedEvent> runs = named(events, "graphalg.Kruskal");
+    check("There are " + runs.size() + " Kruskal events, not 1",
+          runs.size() == 1);
+    if (runs.size() == 1) {
+      RecordedEvent e = runs.get(0);
+      check("The Kruskal event is " + e,
+            e.getString("method").equals("mst") &&
+            e.getInt("vertices") == 4 && e.getInt("edges") == 4 &&
+            e.getLong("edgesExamined") == 3 &&
+            e.getLong("edgesAccepted") == 3 &&
+            e.getLong("findCalls") == 6 && !e.getDuration().isNegative());
+    }
+
+    if (ok) {
+      System.out.println("JFR events test passed.");
+    } else {
+      System.out.println("JFR events test FAILED.");
+    }
+  }
+}
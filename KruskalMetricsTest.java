@@ -0,0 +1,112 @@
+/* KruskalMetricsTest.java */
+
+/**
+ * The KruskalMetricsTest class runs minSpanTree(), mst() and cluster() on a
+ * small graph whose union-find work is known by hand, with a listener
+ * installed, and checks the counts each run reports.
+ *
+ * The graph has vertices 0...16 and, in order of weight, the edges
+ *   (0, 1) ... (14, 15)              pairs, weights 1...8
+ *   (0, 2) (4, 6) (8, 10) (12, 14)   weights 9...12
+ *   (0, 4) (8, 12)                   weights 13, 14
+ *   (0, 8)                           weight 15
+ *   (13, 15)                         weight 16
+ *   (0, 16)                          weight 17
+ * Every union joins two sets of equal size, and the lower end's root wins,
+ * so the first fifteen edges build a binomial tree rooted at 0, and every
+ * find() so far is on a root.  Then find(13) follows 13, 12, 8, 0 and
+ * relinks 13 and 12 to the root; find(15) follows 15, 14, 12, 0 (not 8:
+ * find(13) has moved 12) and relinks 15 and 14.  So the run makes four
+ * compression steps in all.
+ */
+
+import graph.*;
+import graphalg.*;
+
+public class KruskalMetricsTest {
+
+  private static boolean ok = true;
+
+  /**
+   * A Recorder keeps the metrics of the last finished run.
+   */
+  private static class Recorder implements KruskalListener {
+    KruskalMetrics last;
+
+    public void started(KruskalMetrics metrics) {
+      last = null;
+    }
+
+    public void finished(KruskalMetrics metrics) {
+      last = metrics;
+    }
+  }
+
+  private static void check(String method, KruskalMetrics m, long examined,
+                            long accepted, long compressions) {
+    if (m == null) {
+      System.out.println(method + " reports no metrics.");
+      ok = false;
+    } else if (m.edgesExamined != examined || m.edgesAccepted != accepted ||
+               m.findCalls != 2 * examined ||
+               m.compressionSteps != compressions) {
+      System.out.println(method + " reports " + m + ", not examined=" +
+                         examined + " accepted=" + accepted + " finds=" +
+                         2 * examined + " compressions=" + compressions + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Running KruskalMetrics test.");
+
+    int[][] edges = {
+      {0, 1}, {2, 3}, {4, 5}, {6, 7}, {8, 9}, {10, 11}, {12, 13}, {14, 15},
+      {0, 2}, {4, 6}, {8, 10}, {12, 14},
+      {0, 4}, {8, 12},
+      {0, 8},
+      {13, 15},
+      {0, 16}
+    };
+    IntWUGraph g = new IntWUGraph(17);
+    WUGraph w = new WUGraph();
+    for (int v = 0; v < 17; v++) {
+      w.addVertex(Integer.valueOf(v));
+    }
+    for (int i = 0; i < edges.length; i++) {
+      g.addEdge(edges[i][0], edges[i][1], i + 1);
+      w.addEdge(Integer.valueOf(edges[i][0]), Integer.valueOf(edges[i][1]),
+                i + 1);
+    }
+
+    Recorder recorder = new Recorder();
+    KruskalListener old = Kruskal.getListener();
+    Kruskal.setListener(recorder);
+    try {
+      Kruskal.minSpanTree(w);
+      check("minSpanTree(WUGraph)", recorder.last, 17, 16, 4);
+      Kruskal.mst(w);
+      check("mst(WUGraph)", recorder.last, 17, 16, 4);
+      Kruskal.mst(g);
+      check("mst(IntGraph)", recorder.last, 17, 16, 4);
+      // Two clusters remain after (0, 8).  Labelling the clusters finds
+      // every vertex, which flattens the sets, so the scan for the spacing
+      // goes on through (13, 15) to (0, 16) with no compression steps.
+      MstResult clusters = Kruskal.cluster(g, 2);
+      check("cluster(IntGraph, 2)", recorder.last, 17, 15, 0);
+      if (clusters.spacing() != 17) {
+        System.out.println("cluster(IntGraph, 2) has spacing " +
+                           clusters.spacing() + ", not 17.");
+        ok = false;
+      }
+    } finally {
+      Kruskal.setListener(old);
+    }
+
+    if (ok) {
+      System.out.println("KruskalMetrics test passed.");
+    } else {
+      System.out.println("KruskalMetrics test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/* MstCacheTest.java */
+
+/**
+ * The MstCacheTest class checks that an MstCache answers repeated requests
+ * from the cache, recomputes a tree once its graph changes, drops the least
+ * recently used tree when full, and hands out WUGraphs its callers may
+ * change.  It also has several threads share one cache and its results.
+ */
+
+import graph.*;
+import graphalg.*;
+import java.util.*;
+
+public class MstCacheTest {
+
+  private static boolean ok = true;
+
+  private static WUGraph randomGraph(Random random, int n, int edges) {
+    WUGraph g = new WUGraph();
+    for (int v = 0; v < n; v++) {
+      g.addVertex(Integer.valueOf(v));
+    }
+    for (int k = 0; k < edges; k++) {
+      g.addEdge(Integer.valueOf(random.nextInt(n)),
+                Integer.valueOf(random.nextInt(n)), random.nextInt(100));
+    }
+    return g;
+  }
+
+  private static void check(String what, boolean condition) {
+    if (!condition && ok) {
+      System.out.println(what + ".");
+      ok = false;
+    }
+  }
+
+  /**
+   * checkCounts() checks the cache's size, hits and misses.
+   */
+  private static void checkCounts(String what, MstCache cache, int size,
+                                  long hits, long misses) {
+    check(what + ":  the cache holds " + cache.size() + " trees with " +
+          cache.hits() + " hits and " + cache.misses() + " misses, not " +
+          size + " with " + hits + " and " + misses,
+          cache.size() == size && cache.hits() == hits &&
+          cache.misses() == misses);
+  }
+
+  /**
+   * A Worker asks a shared cache for the tree of a shared graph many times,
+   * and keeps every result with the structures it built from it.
+   */
+  private static class Worker extends Thread {
+    MstCache cache;
+    WUGraph g;
+    ArrayList<Object[]> seen = new ArrayList<Object[]>();
+
+    Worker(MstCache cache, WUGraph g) {
+      this.cache = cache;
+      this.g = g;
+    }
+
+    public void run() {
+      for (int i = 0; i < 200; i++) {
+        MstResult t = cache.mst(g);
+        seen.add(new Object[] {t, t.dendrogram(), t.pathMaxIndex(),
+                               t.reconstructionTree(), t.toWUGraph()});
+      }
+    }
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    Random random = new Random(49);
+    System.out.println("Running MstCache test.");
+
+    // Hits and misses, with one entry per graph and order
+    MstCache cache = new MstCache(2);
+    WUGraph a = randomGraph(random, 200, 600);
+    MstResult t = cache.mst(a);
+    check("The cached tree differs from Kruskal.mst()",
+          TestGraphs.sameTree(t, Kruskal.mst(a)) == null);
+    checkCounts("After one request", cache, 1, 0, 1);
+    check("A repeated request returns a different tree", cache.mst(a) == t);
+    checkCounts("After a repeated request", cache, 1, 1, 1);
+    MstResult max = cache.mst(a, WeightTransform.MAXIMUM);
+    MstResult expectedMax = Kruskal.mst(a, WeightTransform.MAXIMUM);
+    check("The cached maximum spanning tree differs from Kruskal.mst()",
+          TestGraphs.sameTree(max, expectedMax) == null);
+    checkCounts("After a request for a maximum tree", cache, 2, 1, 2);
+
+    // A change to the graph makes the next request recompute its tree.
+    Integer u = Integer.valueOf(0);
+    Integer v = Integer.valueOf(1);
+    while (a.isEdge(u, v)) {
+      v = Integer.valueOf(v.intValue() + 1);
+    }
+    a.addEdge(u, v, -1);
+    MstResult changed = cache.mst(a);
+    check("The tree is not recomputed after addEdge()", changed != t);
+    check("The recomputed tree differs from Kruskal.mst()",
+          TestGraphs.sameTree(changed, Kruskal.mst(a)) == null);
+    checkCounts("After addEdge()", cache, 2, 1, 3);
+    a.removeEdge(u, v);
+    check("The tree is not recomputed after removeEdge()",
+          cache.mst(a) != changed);
+    check("The tree after removeEdge() differs from the first",
+          TestGraphs.sameTree(cache.mst(a), t) == null);
+    checkCounts("After removeEdge()", cache, 2, 2, 4);
+
+    // Eviction drops the least recently used tree.
+    WUGraph b = randomGraph(random, 50, 100);
+    cache.mst(b);                            // evicts (a, MAXIMUM)
+    cache.mst(a);                            // makes b least recently used
+    checkCounts("After filling the cache", cache, 2, 3, 5);
+    WUGraph c = randomGraph(random, 50, 100);
+    cache.mst(c);                            // evicts b
+    cache.mst(a);
+    checkCounts("After evicting a tree", cache, 2, 4, 6);
+    cache.mst(b);
+    cache.mst(a, WeightTransform.MAXIMUM);
+    checkCounts("After asking for evicted trees", cache, 2, 4, 8);
+
+    // invalidate() and clear()
+    cache.mst(a);
+    cache.invalidate(a);
+    checkCounts("After invalidate()", cache, 0, 4, 9);
+    cache.mst(a);
+    checkCounts("After a request following invalidate()", cache, 1, 4, 10);
+    cache.clear();
+    checkCounts("After clear()", cache, 0, 4, 10);
+
+    // Each caller of minSpanTree() gets its own WUGraph.
+    WUGraph tree1 = cache.minSpanTree(a);
+    int edges = tree1.edgeCount();
+    tree1.removeVertex(Integer.valueOf(0));
+    WUGraph tree2 = cache.minSpanTree(a);
+    check("minSpanTree() returns the same WUGraph twice", tree1 != tree2);
+    check("A change to one minSpanTree() changes the next",
+          tree2.edgeCount() == edges && tree2.isVertex(Integer.valueOf(0)));
+    check("minSpanTree() differs from Kruskal.minSpanTree()",
+          tree2.edgeCount() == Kruskal.minSpanTree(a).edgeCount());
+    checkCounts("After minSpanTree()", cache, 1, 5, 11);
+
+    // Threads sharing a cache and its results see one structure per result.
+    cache = new MstCache(4);
+    WUGraph shared = randomGraph(random, 2000, 8000);
+    Worker[] workers = new Worker[8];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = new Worker(cache, shared);
+    }
+    for (int i = 0; i < workers.length; i++) {
+      workers[i].start();
+    }
+    for (int i = 0; i < workers.length; i++) {
+      workers[i].join();
+    }
+    MstResult expected = Kruskal.mst(shared);
+    for (int i = 0; i < workers.length && ok; i++) {
+      for (int j = 0; j < workers[i].seen.size() && ok; j++) {
+        Object[] s = workers[i].seen.get(j);
+        MstResult r = (MstResult) s[0];
+        check("A thread got a wrong tree",
+              TestGraphs.sameTree(r, expected) == null);
+        check("Threads got different structures from one result",
+              s[1] == r.dendrogram() && s[2] == r.pathMaxIndex() &&
+              s[3] == r.reconstructionTree() && s[4] == r.toWUGraph());
+      }
+    }
+    check("The shared cache counted " + cache.hits() + " hits and " +
+          cache.misses() + " misses for " + 200 * workers.length +
+          " requests",
+          cache.hits() + cache.misses() == 200 * workers.length);
+
+    if (ok) {
+      System.out.println("MstCache test passed.");
+    } else {
+      System.out.println("MstCache test FAILED.");
+    }
+  }
+}
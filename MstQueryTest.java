@@ -0,0 +1,307 @@
+/* MstQueryTest.java */
+
+/**
+ * The MstQueryTest class checks the structures built from an MstResult
+ * (the Dendrogram, the PathMaxIndex and the ReconstructionTree) against
+ * brute-force computations on random graphs.  See TestGraphs for the
+ * graphs.
+ */
+
+import graph.*;
+import graphalg.*;
+import java.util.*;
+
+public class MstQueryTest {
+
+  private static boolean ok = true;
+
+  /**
+   * reversed() returns a copy of g with every weight negated, so that
+   * questions about a maximum spanning tree of g become questions about a
+   * minimum spanning tree of the copy.
+   */
+  private static IntWUGraph reversed(IntWUGraph g) {
+    int n = g.vertexCount();
+    IntWUGraph r = new IntWUGraph(n);
+    for (int u = 0; u < n; u++) {
+      for (int v = u; v < n; v++) {
+        if (g.isEdge(u, v)) {
+          r.addEdge(u, v, -g.weight(u, v));
+        }
+      }
+    }
+    return r;
+  }
+
+  /**
+   * thresholds() returns every weight of g, and one less than the least
+   * and one more than the greatest.
+   */
+  private static int[] thresholds(IntWUGraph g) {
+    int n = g.vertexCount();
+    TreeSet<Integer> weights = new TreeSet<Integer>();
+    for (int u = 0; u < n; u++) {
+      for (int v = u; v < n; v++) {
+        if (g.isEdge(u, v)) {
+          weights.add(Integer.valueOf(g.weight(u, v)));
+        }
+      }
+    }
+    if (weights.isEmpty()) {
+      weights.add(Integer.valueOf(0));
+    }
+    weights.add(Integer.valueOf(weights.first().intValue() - 1));
+    weights.add(Integer.valueOf(weights.last().intValue() + 1));
+    int[] result = new int[weights.size()];
+    Iterator<Integer> i = weights.iterator();
+    for (int k = 0; k < result.length; k++) {
+      result[k] = i.next().intValue();
+    }
+    return result;
+  }
+
+  /**
+   * checkDendrogram() returns null if d, the dendrogram of t = Kruskal.mst(g),
+   * is well formed and its cuts agree with brute force, or else a
+   * description of what is wrong.  If "maximum" is true, t is a maximum
+   * spanning tree and cuts keep the edges at least as heavy as the
+   * threshold.
+   */
+  private static String checkDendrogram(IntWUGraph g, MstResult t,
+                                        Dendrogram d, boolean maximum) {
+    int n = g.vertexCount();
+    if (d.leafCount() != n || d.mergeCount() != t.edgeCount()) {
+      return "the dendrogram has " + d.leafCount() + " leaves and " +
+        d.mergeCount() + " merges";
+    }
+    boolean[] used = new boolean[n + d.mergeCount()];
+    int[] leaves = new int[n + d.mergeCount()];
+    Arrays.fill(leaves, 0, n, 1);
+    for (int i = 0; i < d.mergeCount(); i++) {
+      int a = d.left(i);
+      int b = d.right(i);
+      if (a < 0 || b < 0 || a >= n + i || b >= n + i || a == b ||
+          used[a] || used[b]) {
+        return "merge " + i + " joins " + a + " and " + b;
+      }
+      used[a] = true;
+      used[b] = true;
+      leaves[n + i] = leaves[a] + leaves[b];
+      if (d.size(i) != leaves[n + i]) {
+        return "size(" + i + ") is " + d.size(i) + ", not " + leaves[n + i];
+      }
+      if (d.weight(i) != t.weight(i)) {
+        return "weight(" + i + ") is " + d.weight(i) + ", not " + t.weight(i);
+      }
+      if (i > 0 && (maximum ? d.weight(i) > d.weight(i - 1)
+                            : d.weight(i) < d.weight(i - 1))) {
+        return "merge " + i + " is out of order";
+      }
+    }
+    IntWUGraph h = maximum ? reversed(g) : g;
+    int[] thresholds = thresholds(g);
+    for (int k = 0; k < thresholds.length; k++) {
+      int threshold = thresholds[k];
+      int limit = maximum ? -threshold : threshold;
+      int[] expected = TestGraphs.components(h, limit);
+      if (!Arrays.equals(d.cut(threshold), expected)) {
+        return "cut(" + threshold + ") is " +
+          Arrays.toString(d.cut(threshold)) + ", not " +
+          Arrays.toString(expected);
+      }
+    }
+    if (!maximum) {
+      for (int k = 1; k <= n + 1; k++) {
+        int[] expected = Kruskal.cluster(g, k).componentLabels();
+        if (!Arrays.equals(d.cutInto(k), expected)) {
+          return "cutInto(" + k + ") is " + Arrays.toString(d.cutInto(k)) +
+            ", not " + Arrays.toString(expected);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * bottlenecks() returns, for every pair of distinct vertices u and v of g
+   * joined by a path, the least possible weight of the heaviest edge on a
+   * path from u to v; Long.MAX_VALUE for other pairs.  (Floyd-Warshall over
+   * the (min, max) semiring.)
+   */
+  private static long[][] bottlenecks(IntWUGraph g) {
+    int n = g.vertexCount();
+    long[][] b = new long[n][n];
+    for (int u = 0; u < n; u++) {
+      for (int v = 0; v < n; v++) {
+        b[u][v] = u != v && g.isEdge(u, v) ? g.weight(u, v) : Long.MAX_VALUE;
+      }
+    }
+    for (int k = 0; k < n; k++) {
+      for (int u = 0; u < n; u++) {
+        for (int v = 0; v < n; v++) {
+          long through = Math.max(b[u][k], b[k][v]);
+          if (u != v && through < b[u][v]) {
+            b[u][v] = through;
+          }
+        }
+      }
+    }
+    return b;
+  }
+
+  /**
+   * onPath() returns true if tree edge e lies on the tree path between u
+   * and v:  removing it separates them.
+   */
+  private static boolean onPath(MstResult t, int e, int u, int v) {
+    IntWUGraph forest = t.toIntWUGraph();
+    forest.removeEdge(t.end1(e), t.end2(e));
+    int[] labels = TestGraphs.components(forest, Integer.MAX_VALUE);
+    return labels[u] != labels[v];
+  }
+
+  /**
+   * checkPathMax() returns null if t.pathMaxIndex() answers every query on
+   * every pair of vertices as brute force does, or else a description of a
+   * difference.  If "maximum" is true, t is a maximum spanning tree, and
+   * the path maximum is the greatest possible weight of the lightest edge
+   * on a path.
+   */
+  private static String checkPathMax(IntWUGraph g, MstResult t,
+                                     boolean maximum, Random random) {
+    int n = g.vertexCount();
+    PathMaxIndex index = t.pathMaxIndex();
+    long[][] b = bottlenecks(maximum ? reversed(g) : g);
+    for (int u = 0; u < n; u++) {
+      for (int v = 0; v < n; v++) {
+        boolean joined = u != v && b[u][v] != Long.MAX_VALUE;
+        if (index.connected(u, v) != (u == v || joined)) {
+          return "connected(" + u + ", " + v + ") is " + index.connected(u, v);
+        }
+        if (!joined) {
+          if (index.pathMaxEdge(u, v) != -1 || index.pathMax(u, v) != 0) {
+            return "pathMaxEdge(" + u + ", " + v + ") is " +
+              index.pathMaxEdge(u, v) + ", not -1";
+          }
+          if (index.wouldChange(u, v, 0) != (u != v)) {
+            return "wouldChange(" + u + ", " + v + ", 0) is " +
+              index.wouldChange(u, v, 0);
+          }
+          continue;
+        }
+        int expected = (int) (maximum ? -b[u][v] : b[u][v]);
+        if (index.pathMax(u, v) != expected) {
+          return "pathMax(" + u + ", " + v + ") is " + index.pathMax(u, v) +
+            ", not " + expected;
+        }
+        int e = index.pathMaxEdge(u, v);
+        if (e < 0 || e >= t.edgeCount() || t.weight(e) != expected) {
+          return "pathMaxEdge(" + u + ", " + v + ") is " + e;
+        }
+        if (random.nextInt(20) == 0 && !onPath(t, e, u, v)) {
+          return "pathMaxEdge(" + u + ", " + v + ") = " + e +
+            " is not on the path";
+        }
+        for (int w = expected - 1; w <= expected + 1; w++) {
+          boolean change = maximum ? w > expected : w < expected;
+          if (index.wouldChange(u, v, w) != change) {
+            return "wouldChange(" + u + ", " + v + ", " + w + ") is " +
+              index.wouldChange(u, v, w);
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * checkReconstruction() returns null if t.reconstructionTree() is well
+   * formed and answers every query on every pair of vertices as brute force
+   * does (ancestors found by walking up parent(), minimax distances from
+   * bottleneck paths), or else a description of a difference.
+   */
+  private static String checkReconstruction(IntWUGraph g, MstResult t,
+                                            boolean maximum) {
+    int n = g.vertexCount();
+    ReconstructionTree r = t.reconstructionTree();
+    if (r.leafCount() != n || r.nodeCount() != n + t.edgeCount()) {
+      return "the tree has " + r.leafCount() + " leaves and " + r.nodeCount() +
+        " nodes";
+    }
+    int roots = 0;
+    for (int x = 0; x < r.nodeCount(); x++) {
+      int p = r.parent(x);
+      if (p == -1) {
+        roots++;
+      } else if (p <= x || p < n || p >= r.nodeCount()) {
+        return "parent(" + x + ") is " + p;
+      } else if (x >= n && (maximum ? r.weight(p) > r.weight(x)
+                                    : r.weight(p) < r.weight(x))) {
+        return "node " + x + " is heavier than its parent";
+      }
+    }
+    if (roots != t.componentCount()) {
+      return "the tree has " + roots + " roots, not " + t.componentCount();
+    }
+    long[][] b = bottlenecks(maximum ? reversed(g) : g);
+    boolean[] ancestor = new boolean[r.nodeCount()];
+    for (int u = 0; u < n; u++) {
+      Arrays.fill(ancestor, false);
+      for (int x = u; x != -1; x = r.parent(x)) {
+        ancestor[x] = true;
+      }
+      for (int v = 0; v < n; v++) {
+        int lca = v;
+        while (lca != -1 && !ancestor[lca]) {
+          lca = r.parent(lca);
+        }
+        if (r.lca(u, v) != lca) {
+          return "lca(" + u + ", " + v + ") is " + r.lca(u, v) + ", not " + lca;
+        }
+        boolean joined = u != v && b[u][v] != Long.MAX_VALUE;
+        if (r.connected(u, v) != (u == v || joined)) {
+          return "connected(" + u + ", " + v + ") is " + r.connected(u, v);
+        }
+        int expected = !joined ? 0 : (int) (maximum ? -b[u][v] : b[u][v]);
+        if (r.minimax(u, v) != expected) {
+          return "minimax(" + u + ", " + v + ") is " + r.minimax(u, v) +
+            ", not " + expected;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void fail(String what, IntWUGraph g, String problem) {
+    if (problem != null && ok) {
+      System.out.println(what + " on a graph of " + g.vertexCount() +
+                         " vertices and " + g.edgeCount() + " edges:  " +
+                         problem + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(39);
+    System.out.println("Running MST query test.");
+
+    for (int trial = 0; trial < TestGraphs.TRIALS && ok; trial++) {
+      IntWUGraph g = TestGraphs.randomGraph(random);
+      MstResult t = Kruskal.mst(g);
+      MstResult m = Kruskal.mst(g, WeightTransform.MAXIMUM);
+      fail("Dendrogram", g, checkDendrogram(g, t, t.dendrogram(), false));
+      fail("Maximum dendrogram", g,
+           checkDendrogram(g, m, m.dendrogram(), true));
+      fail("PathMaxIndex", g, checkPathMax(g, t, false, random));
+      fail("Maximum PathMaxIndex", g, checkPathMax(g, m, true, random));
+      fail("ReconstructionTree", g, checkReconstruction(g, t, false));
+      fail("Maximum ReconstructionTree", g, checkReconstruction(g, m, true));
+    }
+
+    if (ok) {
+      System.out.println("MST query test passed.");
+    } else {
+      System.out.println("MST query test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/* MstResultTest.java */
+
+/**
+ * The MstResultTest class checks the MstResults returned by Kruskal.mst()
+ * and Kruskal.cluster() on random graphs (with negative weights, ties,
+ * self-edges and isolated vertices) against brute-force computations on
+ * the same graphs:  the forest itself, its components, and the clusters
+ * and their spacing.  See TestGraphs for the graphs and the brute force.
+ */
+
+import graph.*;
+import graphalg.*;
+import set.*;
+import java.util.*;
+
+public class MstResultTest {
+
+  private static boolean ok = true;
+
+  /**
+   * checkForest() returns null if t is a spanning forest of g made of g's
+   * edges, with its edges in nondecreasing weight order and its total
+   * weight minimal, or else a description of what is wrong.
+   */
+  private static String checkForest(IntWUGraph g, MstResult t) {
+    int n = g.vertexCount();
+    int[] labels = TestGraphs.components(g, Integer.MAX_VALUE);
+    if (t.vertexCount() != n) {
+      return "vertexCount() is " + t.vertexCount() + ", not " + n;
+    }
+    if (t.edgeCount() != n - TestGraphs.count(labels)) {
+      return "the forest has " + t.edgeCount() + " edges, not " +
+        (n - TestGraphs.count(labels));
+    }
+    DisjointSets sets = new DisjointSets(n);
+    long total = 0;
+    for (int i = 0; i < t.edgeCount(); i++) {
+      int u = t.end1(i);
+      int v = t.end2(i);
+      if (!g.isEdge(u, v) || g.weight(u, v) != t.weight(i)) {
+        return "edge " + i + " (" + u + ", " + v + ", " + t.weight(i) +
+          ") is not an edge of the graph";
+      }
+      if (i > 0 && t.weight(i - 1) > t.weight(i)) {
+        return "edge " + i + " is lighter than edge " + (i - 1);
+      }
+      int r1 = sets.find(u);
+      int r2 = sets.find(v);
+      if (r1 == r2) {
+        return "edge " + i + " closes a cycle";
+      }
+      sets.union(r1, r2);
+      total += t.weight(i);
+    }
+    if (total != t.totalWeight()) {
+      return "totalWeight() is " + t.totalWeight() + ", not " + total;
+    }
+    if (total != TestGraphs.primWeight(g)) {
+      return "the forest weighs " + total + ", not " +
+        TestGraphs.primWeight(g);
+    }
+    return null;
+  }
+
+  /**
+   * checkComponents() returns null if t's components are g's connected
+   * components, numbered in order of their lowest vertex, with the right
+   * sizes, edge counts and weights, or else a description of a difference.
+   */
+  private static String checkComponents(IntWUGraph g, MstResult t) {
+    int[] labels = TestGraphs.components(g, Integer.MAX_VALUE);
+    int k = TestGraphs.count(labels);
+    if (t.componentCount() != k) {
+      return "componentCount() is " + t.componentCount() + ", not " + k;
+    }
+    if (!Arrays.equals(t.componentLabels(), labels)) {
+      return "componentLabels() is " + Arrays.toString(t.componentLabels()) +
+        ", not " + Arrays.toString(labels);
+    }
+    for (int v = 0; v < labels.length; v++) {
+      if (t.component(v) != labels[v]) {
+        return "component(" + v + ") is " + t.component(v);
+      }
+    }
+    for (int c = 0; c < k; c++) {
+      int size = 0;
+      for (int v = 0; v < labels.length; v++) {
+        if (labels[v] == c) {
+          size++;
+        }
+      }
+      if (t.componentSize(c) != size || t.componentEdgeCount(c) != size - 1) {
+        return "component " + c + " has size " + t.componentSize(c) +
+          " and " + t.componentEdgeCount(c) + " edges, not " + size;
+      }
+      if (t.componentWeight(c) != TestGraphs.primWeight(g, labels, c)) {
+        return "componentWeight(" + c + ") is " + t.componentWeight(c) +
+          ", not " + TestGraphs.primWeight(g, labels, c);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * checkClusters() returns null if "clusters", the result of
+   * Kruskal.cluster(g, k), is a maximum-spacing clustering of g into k
+   * clusters (or into g's components, if there are more than k), or else a
+   * description of what is wrong.  "tree" is Kruskal.mst(g).
+   */
+  private static String checkClusters(IntWUGraph g, int k,
+                                      MstResult clusters, MstResult tree) {
+    int n = g.vertexCount();
+    int expected = Math.max(Math.min(k, n), tree.componentCount());
+    if (clusters.componentCount() != expected) {
+      return "cluster(g, " + k + ") makes " + clusters.componentCount() +
+        " clusters, not " + expected;
+    }
+    int[] labels = clusters.componentLabels();
+    int[] byEdges = TestGraphs.components(clusters.toIntWUGraph(),
+                                          Integer.MAX_VALUE);
+    if (!Arrays.equals(byEdges, labels)) {
+      return "cluster(g, " + k + ")'s labels are not the components of its " +
+        "edges";
+    }
+    boolean crossing = false;
+    int lightest = Integer.MAX_VALUE;
+    for (int u = 0; u < n; u++) {
+      for (int v = u + 1; v < n; v++) {
+        if (labels[u] != labels[v] && g.isEdge(u, v)) {
+          crossing = true;
+          lightest = Math.min(lightest, g.weight(u, v));
+        }
+      }
+    }
+    if (clusters.hasSpacing() != crossing) {
+      return "cluster(g, " + k + ").hasSpacing() is " + clusters.hasSpacing();
+    }
+    if (!crossing) {
+      return null;
+    }
+    if (clusters.spacing() != lightest) {
+      return "cluster(g, " + k + ").spacing() is " + clusters.spacing() +
+        ", but the lightest edge between clusters weighs " + lightest;
+    }
+    // No clustering into this many clusters has a larger spacing than the
+    // weight of the next edge Kruskal's algorithm would have accepted.
+    if (clusters.spacing() != tree.weight(clusters.edgeCount())) {
+      return "cluster(g, " + k + ").spacing() is " + clusters.spacing() +
+        ", not the maximum " + tree.weight(clusters.edgeCount());
+    }
+    return null;
+  }
+
+  private static void fail(String what, IntWUGraph g, String problem) {
+    if (problem != null && ok) {
+      System.out.println(what + " on a graph of " + g.vertexCount() +
+                         " vertices and " + g.edgeCount() + " edges:  " +
+                         problem + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(36);
+    System.out.println("Running MstResult test.");
+
+    for (int trial = 0; trial < TestGraphs.TRIALS && ok; trial++) {
+      IntWUGraph g = TestGraphs.randomGraph(random);
+      MstResult t = Kruskal.mst(g);
+      fail("mst()", g, checkForest(g, t));
+      fail("mst() of a CSRGraph", g,
+           checkForest(g, Kruskal.mst(CSRGraph.copyOf(g))));
+      fail("toWUGraph()", g, TestGraphs.sameTree(t, t.toWUGraph()));
+      fail("toIntWUGraph()", g, TestGraphs.sameTree(t, t.toIntWUGraph()));
+      fail("Components", g, checkComponents(g, t));
+      for (int k = 1; k <= g.vertexCount() + 1; k++) {
+        fail("cluster()", g, checkClusters(g, k, Kruskal.cluster(g, k), t));
+      }
+    }
+
+    // Fewer than one cluster, from either kind of graph
+    IntWUGraph g = TestGraphs.randomGraph(random);
+    WUGraph w = new WUGraph();
+    w.addVertex("a");
+    for (int k = 0; k >= -1; k--) {
+      try {
+        Kruskal.cluster(g, k);
+        fail("cluster()", g,
+             "k = " + k + " throws no IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+      }
+      try {
+        Kruskal.cluster(w, k);
+        fail("cluster() of a WUGraph", g,
+             "k = " + k + " throws no IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+      }
+    }
+
+    if (ok) {
+      System.out.println("MstResult test passed.");
+    } else {
+      System.out.println("MstResult test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/* MstVerifierTest.java */
+
+/**
+ * The MstVerifierTest class checks that MstVerifier accepts exactly the
+ * minimum spanning forests of random graphs.  It offers the verifier the
+ * trees Kruskal's algorithm finds, random spanning forests (accepted only
+ * if brute force finds them minimal), and trees damaged in each of the
+ * ways the verifier looks for.  See TestGraphs for the graphs.
+ */
+
+import graph.*;
+import graphalg.*;
+import set.*;
+import java.util.*;
+
+public class MstVerifierTest {
+
+  private static boolean ok = true;
+
+  /**
+   * randomForest() returns a spanning forest of g built by Kruskal's
+   * algorithm on the edges in random order, so it is usually not minimal.
+   */
+  private static IntWUGraph randomForest(IntWUGraph g, Random random) {
+    int n = g.vertexCount();
+    ArrayList<int[]> edges = new ArrayList<int[]>();
+    for (int u = 0; u < n; u++) {
+      for (int v = u + 1; v < n; v++) {
+        if (g.isEdge(u, v)) {
+          edges.add(new int[] {u, v});
+        }
+      }
+    }
+    Collections.shuffle(edges, random);
+    IntWUGraph forest = new IntWUGraph(n);
+    DisjointSets sets = new DisjointSets(n);
+    for (int i = 0; i < edges.size(); i++) {
+      int[] e = edges.get(i);
+      int r1 = sets.find(e[0]);
+      int r2 = sets.find(e[1]);
+      if (r1 != r2) {
+        sets.union(r1, r2);
+        forest.addEdge(e[0], e[1], g.weight(e[0], e[1]));
+      }
+    }
+    return forest;
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of the edges of g.
+   */
+  private static long totalWeight(IntWUGraph g) {
+    long total = 0;
+    int n = g.vertexCount();
+    for (int u = 0; u < n; u++) {
+      for (int v = u; v < n; v++) {
+        if (g.isEdge(u, v)) {
+          total += g.weight(u, v);
+        }
+      }
+    }
+    return total;
+  }
+
+  /**
+   * expect() checks that "problem", the verdict of the verifier on a tree
+   * described by "what", is null if "valid", and otherwise a message
+   * containing "phrase" (which may be null if any message will do).
+   */
+  private static void expect(String what, IntWUGraph g, String problem,
+                             boolean valid, String phrase) {
+    if (!ok) {
+      return;
+    }
+    String wrong = null;
+    if (valid && problem != null) {
+      wrong = "rejects it:  " + problem;
+    } else if (!valid && problem == null) {
+      wrong = "accepts it";
+    } else if (!valid && phrase != null && problem.indexOf(phrase) < 0) {
+      wrong = "rejects it for the wrong reason:  " + problem;
+    }
+    if (wrong != null) {
+      System.out.println(what + " of a graph of " + g.vertexCount() +
+                         " vertices and " + g.edgeCount() +
+                         " edges:  the verifier " + wrong + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(43);
+    System.out.println("Running MstVerifier test.");
+
+    for (int trial = 0; trial < TestGraphs.TRIALS && ok; trial++) {
+      IntWUGraph g = TestGraphs.randomGraph(random);
+      int n = g.vertexCount();
+      MstResult t = Kruskal.mst(g);
+      MstResult m = Kruskal.mst(g, WeightTransform.MAXIMUM);
+
+      expect("The MST", g, MstVerifier.verify(g, t), true, null);
+      expect("The MST as a graph", g,
+             MstVerifier.verify(g, t.toIntWUGraph()), true, null);
+      expect("The maximum spanning tree", g, MstVerifier.verify(g, m), true,
+             null);
+      expect("The maximum spanning tree as a minimum one", g,
+             MstVerifier.verify(g, m.toIntWUGraph()),
+             m.totalWeight() == t.totalWeight(), null);
+
+      for (int k = 0; k < 5; k++) {
+        IntWUGraph forest = randomForest(g, random);
+        expect("A random spanning forest", g, MstVerifier.verify(g, forest),
+               totalWeight(forest) == t.totalWeight(), "non-tree edge");
+      }
+
+      expect("A tree with an extra vertex", g,
+             MstVerifier.verify(g, new IntWUGraph(n + 1)), false, "vertices");
+      if (t.edgeCount() == 0) {
+        continue;
+      }
+
+      int i = random.nextInt(t.edgeCount());
+      IntWUGraph missing = t.toIntWUGraph();
+      missing.removeEdge(t.end1(i), t.end2(i));
+      expect("A tree missing an edge", g, MstVerifier.verify(g, missing),
+             false, null);
+
+      IntWUGraph reweighted = t.toIntWUGraph();
+      reweighted.addEdge(t.end1(i), t.end2(i), t.weight(i) + 1);
+      expect("A tree with a wrong weight", g,
+             MstVerifier.verify(g, reweighted), false, "has weight");
+
+      for (int u = 0; u < n; u++) {
+        for (int v = u; v < n; v++) {
+          IntWUGraph extra = t.toIntWUGraph();
+          if (extra.isEdge(u, v)) {
+            continue;
+          }
+          if (g.isEdge(u, v)) {
+            extra.addEdge(u, v, g.weight(u, v));
+            expect("A tree with an extra graph edge", g,
+                   MstVerifier.verify(g, extra), false, "closes a cycle");
+          } else if (u != v) {
+            extra.addEdge(u, v, 0);
+            expect("A tree with a non-graph edge", g,
+                   MstVerifier.verify(g, extra), false, "not in the graph");
+          }
+        }
+      }
+    }
+
+    // The WUGraph overloads name missing vertices.
+    WUGraph g = new WUGraph();
+    WUGraph t = new WUGraph();
+    for (int v = 0; v < 3; v++) {
+      g.addVertex(Integer.valueOf(v));
+      t.addVertex(Integer.valueOf(v == 2 ? 3 : v));
+    }
+    g.addEdge(Integer.valueOf(0), Integer.valueOf(1), 4);
+    t.addEdge(Integer.valueOf(0), Integer.valueOf(1), 4);
+    String problem = MstVerifier.verify(g, t);
+    if (problem == null || problem.indexOf("not in the tree") < 0) {
+      System.out.println("A WUGraph tree with the wrong vertices:  the " +
+                         "verifier says " + problem + ".");
+      ok = false;
+    }
+    t.removeVertex(Integer.valueOf(3));
+    t.addVertex(Integer.valueOf(2));
+    problem = MstVerifier.verify(g, t);
+    if (problem != null) {
+      System.out.println("A WUGraph MST:  the verifier rejects it:  " +
+                         problem + ".");
+      ok = false;
+    }
+
+    if (ok) {
+      System.out.println("MstVerifier test passed.");
+    } else {
+      System.out.println("MstVerifier test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/* TestGraphs.java */
+
+/**
+ * The TestGraphs class holds the random graphs and brute-force computations
+ * shared by the MST tests:  random IntWUGraphs with negative weights, ties,
+ * self-edges and isolated vertices; connected components found by search;
+ * the weight of a minimum spanning forest found by Prim's algorithm; and
+ * comparisons of an MstResult with another and with the graphs built from
+ * it.
+ */
+
+import graph.*;
+import graphalg.*;
+import java.util.*;
+
+public class TestGraphs {
+
+  static final int TRIALS = 200;
+
+  /**
+   * randomGraph() returns a graph on n vertices with about "edges" random
+   * edges of weight -maxWeight...maxWeight, leaving vertices chosen by
+   * chance isolated.  Small weight ranges give many ties.
+   */
+  static IntWUGraph randomGraph(Random random, int n, int edges,
+                                int maxWeight) {
+    IntWUGraph g = new IntWUGraph(n);
+    boolean[] isolated = new boolean[n];
+    for (int v = 0; v < n; v++) {
+      isolated[v] = random.nextInt(8) == 0;
+    }
+    for (int k = 0; k < edges; k++) {
+      int u = random.nextInt(n);
+      int v = random.nextInt(10) == 0 ? u : random.nextInt(n);
+      if (!isolated[u] && !isolated[v]) {
+        g.addEdge(u, v, random.nextInt(2 * maxWeight + 1) - maxWeight);
+      }
+    }
+    return g;
+  }
+
+  /**
+   * randomGraph() returns a random graph of random size, up to 40 vertices.
+   */
+  static IntWUGraph randomGraph(Random random) {
+    int n = 1 + random.nextInt(40);
+    return randomGraph(random, n, random.nextInt(4 * n + 1),
+                       1 + random.nextInt(random.nextBoolean() ? 5 : 1000));
+  }
+
+  /**
+   * components() labels each vertex of g with its connected component in
+   * the subgraph of edges of weight at most "limit", numbering components
+   * in order of their lowest vertex.
+   */
+  static int[] components(IntWUGraph g, int limit) {
+    int n = g.vertexCount();
+    int[] label = new int[n];
+    Arrays.fill(label, -1);
+    int next = 0;
+    int[] stack = new int[n];
+    for (int s = 0; s < n; s++) {
+      if (label[s] >= 0) {
+        continue;
+      }
+      int top = 0;
+      stack[top++] = s;
+      label[s] = next;
+      while (top > 0) {
+        int u = stack[--top];
+        for (int v = 0; v < n; v++) {
+          if (label[v] < 0 && g.isEdge(u, v) && g.weight(u, v) <= limit) {
+            label[v] = next;
+            stack[top++] = v;
+          }
+        }
+      }
+      next++;
+    }
+    return label;
+  }
+
+  /**
+   * count() returns the number of distinct labels in "labels", which must
+   * be numbered from zero.
+   */
+  static int count(int[] labels) {
+    int max = -1;
+    for (int i = 0; i < labels.length; i++) {
+      max = Math.max(max, labels[i]);
+    }
+    return max + 1;
+  }
+
+  /**
+   * primWeight() returns the total weight of a minimum spanning forest of
+   * the vertices of g labelled "c" in "labels", by Prim's algorithm.
+   */
+  static long primWeight(IntWUGraph g, int[] labels, int c) {
+    int n = g.vertexCount();
+    boolean[] inTree = new boolean[n];
+    long total = 0;
+    int start = -1;
+    for (int v = 0; v < n && start < 0; v++) {
+      if (labels[v] == c) {
+        start = v;
+      }
+    }
+    if (start < 0) {
+      return 0;
+    }
+    inTree[start] = true;
+    while (true) {
+      int best = -1;
+      long bestWeight = Long.MAX_VALUE;
+      for (int u = 0; u < n; u++) {
+        if (!inTree[u]) {
+          continue;
+        }
+        for (int v = 0; v < n; v++) {
+          if (!inTree[v] && g.isEdge(u, v) && g.weight(u, v) < bestWeight) {
+            best = v;
+            bestWeight = g.weight(u, v);
+          }
+        }
+      }
+      if (best < 0) {
+        return total;
+      }
+      inTree[best] = true;
+      total += bestWeight;
+    }
+  }
+
+  /**
+   * primWeight() returns the total weight of a minimum spanning forest of g.
+   */
+  static long primWeight(IntWUGraph g) {
+    int[] labels = components(g, Integer.MAX_VALUE);
+    long total = 0;
+    for (int c = 0; c < count(labels); c++) {
+      total += primWeight(g, labels, c);
+    }
+    return total;
+  }
+
+  /**
+   * sameTree() returns null if x and y hold the same edges in the same
+   * order, or else a description of the first difference.
+   */
+  static String sameTree(MstResult x, MstResult y) {
+    if (x.edgeCount() != y.edgeCount()) {
+      return "the trees have " + x.edgeCount() + " and " + y.edgeCount() +
+        " edges";
+    }
+    for (int i = 0; i < x.edgeCount(); i++) {
+      if (x.end1(i) != y.end1(i) || x.end2(i) != y.end2(i) ||
+          x.weight(i) != y.weight(i)) {
+        return "edge " + i + " is (" + x.end1(i) + ", " + x.end2(i) + ", " +
+          x.weight(i) + ") in one tree and (" + y.end1(i) + ", " + y.end2(i) +
+          ", " + y.weight(i) + ") in the other";
+      }
+    }
+    return null;
+  }
+
+  /**
+   * sameTree() returns null if the WUGraph "w" holds exactly the edges of
+   * t, between the vertex objects t.vertex() names, or else a description
+   * of a difference.
+   */
+  static String sameTree(MstResult t, WUGraph w) {
+    if (w.vertexCount() != t.vertexCount() || w.edgeCount() != t.edgeCount()) {
+      return "the WUGraph has " + w.vertexCount() + " vertices and " +
+        w.edgeCount() + " edges, not " + t.vertexCount() + " and " +
+        t.edgeCount();
+    }
+    for (int i = 0; i < t.edgeCount(); i++) {
+      Object u = t.vertex(t.end1(i));
+      Object v = t.vertex(t.end2(i));
+      if (!w.isEdge(u, v) || w.weight(u, v) != t.weight(i)) {
+        return "the WUGraph lacks edge " + i + " (" + u + ", " + v + ")";
+      }
+    }
+    return null;
+  }
+
+  /**
+   * sameTree() returns null if the IntWUGraph h holds exactly the edges of
+   * t, or else a description of a difference.
+   */
+  static String sameTree(MstResult t, IntWUGraph h) {
+    if (h.vertexCount() != t.vertexCount() || h.edgeCount() != t.edgeCount()) {
+      return "the IntWUGraph has " + h.vertexCount() + " vertices and " +
+        h.edgeCount() + " edges, not " + t.vertexCount() + " and " +
+        t.edgeCount();
+    }
+    for (int i = 0; i < t.edgeCount(); i++) {
+      int u = t.end1(i);
+      int v = t.end2(i);
+      if (!h.isEdge(u, v) || h.weight(u, v) != t.weight(i)) {
+        return "the IntWUGraph lacks edge " + i + " (" + u + ", " + v + ")";
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,158 @@
+/* TieBreakTest.java */
+
+/**
+ * The TieBreakTest class checks that Kruskal's algorithm breaks ties
+ * between edges of equal weight the same way for every representation of a
+ * graph.  It builds random graphs with many ties as IntWUGraphs, CSRGraphs
+ * and WUGraphs, adding the edges in different random orders, and checks
+ * that mst() gives the same tree edge for edge.  A WUGraph's vertices are
+ * ranked in the order they were added, so a WUGraph with its vertices
+ * added in another order must give the tree of the IntWUGraph numbered the
+ * same way, and a tree of the same weight.
+ */
+
+import graph.*;
+import graphalg.*;
+import java.util.*;
+
+public class TieBreakTest {
+
+  private static boolean ok = true;
+
+  /**
+   * randomEdges() returns about "count" distinct edges (u, v, weight) on n
+   * vertices, self-edges included, with weights 0...maxWeight.
+   */
+  private static ArrayList<int[]> randomEdges(Random random, int n,
+                                              int count, int maxWeight) {
+    ArrayList<int[]> edges = new ArrayList<int[]>();
+    HashSet<Long> pairs = new HashSet<Long>();
+    for (int k = 0; k < count; k++) {
+      int u = random.nextInt(n);
+      int v = random.nextInt(n);
+      if (pairs.add(Long.valueOf((long) Math.min(u, v) * n + Math.max(u, v)))) {
+        edges.add(new int[] {u, v, random.nextInt(maxWeight + 1)});
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * intGraph() returns an IntWUGraph holding "edges", added in a random
+   * order with their ends in random order, and with vertex v renumbered
+   * rank[v].
+   */
+  private static IntWUGraph intGraph(Random random, int n,
+                                     ArrayList<int[]> edges, int[] rank) {
+    ArrayList<int[]> shuffled = new ArrayList<int[]>(edges);
+    Collections.shuffle(shuffled, random);
+    IntWUGraph g = new IntWUGraph(n);
+    for (int i = 0; i < shuffled.size(); i++) {
+      int[] e = shuffled.get(i);
+      if (random.nextBoolean()) {
+        g.addEdge(rank[e[0]], rank[e[1]], e[2]);
+      } else {
+        g.addEdge(rank[e[1]], rank[e[0]], e[2]);
+      }
+    }
+    return g;
+  }
+
+  /**
+   * wuGraph() returns a WUGraph holding "edges", whose vertices are the
+   * Integers 0...n - 1 added in the order given by "added", and whose edges
+   * are added in a random order.
+   */
+  private static WUGraph wuGraph(Random random, int n,
+                                 ArrayList<int[]> edges, int[] added) {
+    ArrayList<int[]> shuffled = new ArrayList<int[]>(edges);
+    Collections.shuffle(shuffled, random);
+    WUGraph g = new WUGraph();
+    for (int i = 0; i < n; i++) {
+      g.addVertex(Integer.valueOf(added[i]));
+    }
+    for (int i = 0; i < shuffled.size(); i++) {
+      int[] e = shuffled.get(i);
+      g.addEdge(Integer.valueOf(e[0]), Integer.valueOf(e[1]), e[2]);
+    }
+    return g;
+  }
+
+  private static void fail(String what, int trial, String problem) {
+    if (problem != null && ok) {
+      System.out.println(what + " in trial " + trial + ":  " + problem + ".");
+      ok = false;
+    }
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(48);
+    System.out.println("Running tie-break test.");
+
+    for (int trial = 0; trial < 300 && ok; trial++) {
+      int n = 1 + random.nextInt(60);
+      ArrayList<int[]> edges = randomEdges(random, n,
+                                           random.nextInt(4 * n + 1),
+                                           random.nextInt(3));
+      WeightTransform order = trial % 3 == 2 ? WeightTransform.MAXIMUM
+                                             : WeightTransform.MINIMUM;
+      int[] identity = new int[n];
+      int[] added = new int[n];
+      for (int v = 0; v < n; v++) {
+        identity[v] = v;
+        added[v] = v;
+      }
+      for (int v = n - 1; v > 0; v--) {
+        int r = random.nextInt(v + 1);
+        int swap = added[v];
+        added[v] = added[r];
+        added[r] = swap;
+      }
+      // rank[v] is the position of Integer v among the vertices added in
+      // the order "added".
+      int[] rank = new int[n];
+      for (int r = 0; r < n; r++) {
+        rank[added[r]] = r;
+      }
+
+      IntWUGraph a = intGraph(random, n, edges, identity);
+      IntWUGraph b = intGraph(random, n, edges, identity);
+      WUGraph w = wuGraph(random, n, edges, identity);
+      MstResult t = Kruskal.mst(a, order);
+      MstResult tw = Kruskal.mst(w, order);
+      fail("Two runs", trial, TestGraphs.sameTree(t, Kruskal.mst(a, order)));
+      fail("Another edge order", trial,
+           TestGraphs.sameTree(t, Kruskal.mst(b, order)));
+      fail("A CSRGraph", trial,
+           TestGraphs.sameTree(t, Kruskal.mst(CSRGraph.copyOf(b), order)));
+      fail("A WUGraph", trial, TestGraphs.sameTree(t, tw));
+      fail("The classic WUGraph tree", trial,
+           TestGraphs.sameTree(tw, Kruskal.minSpanTree(w, order)));
+      for (int v = 0; v < n && ok; v++) {
+        if (!Integer.valueOf(v).equals(tw.vertex(v))) {
+          fail("A WUGraph", trial, "rank " + v + " is not vertex " + v);
+        }
+      }
+
+      WUGraph p = wuGraph(random, n, edges, added);
+      MstResult tp = Kruskal.mst(p, order);
+      MstResult renumbered = Kruskal.mst(intGraph(random, n, edges, rank),
+                                         order);
+      fail("A WUGraph with its vertices added in another order", trial,
+           TestGraphs.sameTree(renumbered, tp));
+      fail("The classic tree of that WUGraph", trial,
+           TestGraphs.sameTree(tp, Kruskal.minSpanTree(p, order)));
+      if (tp.totalWeight() != t.totalWeight()) {
+        fail("A WUGraph with its vertices added in another order", trial,
+             "the tree weighs " + tp.totalWeight() + ", not " +
+             t.totalWeight());
+      }
+    }
+
+    if (ok) {
+      System.out.println("Tie-break test passed.");
+    } else {
+      System.out.println("Tie-break test FAILED.");
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/* Bench.java */
+
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * The Bench class runs Benchmarks and reports, for each, the time per
+ * operation and the bytes allocated per operation, so that both speed and
+ * allocation regressions show up.  Each benchmark is run WARMUP times to let
+ * the JIT compile it, then measured over "reps" runs; the best and median
+ * run times are reported.  Allocation is read from the HotSpot per-thread
+ * allocation counter (com.sun.management.ThreadMXBean), and is reported as
+ * "n/a" on JVMs without one.
+ *
+ * The number of measured runs defaults to 10 and may be changed with the
+ * system property bench.reps, e.g. java -Dbench.reps=30 bench.BenchSuite.
+ */
+
+public class Bench {
+
+  static final int WARMUP = 5;
+  static final int REPS = Integer.getInteger("bench.reps", 10).intValue();
+
+  private static long sink;
+
+  /**
+   * run() warms up and measures "b", and prints one line of results.
+   */
+  public static void run(Benchmark b) {
+    for (int i = 0; i < WARMUP; i++) {
+      b.setUp();
+      sink += b.run();
+    }
+    long[] times = new long[REPS];
+    long bytes = 0;
+    boolean counted = true;
+    for (int i = 0; i < REPS; i++) {
+      b.setUp();
+      long allocated = allocatedBytes();
+      long start = System.nanoTime();
+      sink += b.run();
+      times[i] = System.nanoTime() - start;
+      long after = allocatedBytes();
+      if (allocated < 0 || after < 0) {
+        counted = false;
+      } else {
+        bytes += after - allocated;
+      }
+    }
+    report(b.name, times, counted ? bytes : -1, b.ops);
+  }
+
+  /**
+   * report() prints one line of results for "name":  the best and median of
+   * "times", and "bytes" allocated over all of them (-1 if not counted),
+   * each divided by "ops".  "times" is left sorted.
+   */
+  static void report(String name, long[] times, long bytes, int ops) {
+    Arrays.sort(times);
+    double best = (double) times[0] / ops;
+    double median = (double) times[times.length / 2] / ops;
+    String alloc = bytes < 0 ? "n/a"
+                             : format((double) bytes / times.length / ops, 1);
+    System.out.println(pad(name, 44) + pad(format(best, 1), 12) +
+                       pad(format(median, 1), 12) + pad(alloc, 12));
+  }
+
+  /**
+   * header() prints a title and the column headings.
+   */
+  public static void header(String title) {
+    System.out.println();
+    System.out.println(title);
+    System.out.println(pad("benchmark", 44) + pad("best ns/op", 12) +
+                       pad("median", 12) + pad("B/op", 12));
+  }
+
+  /**
+   * done() prints a value computed from every run, which keeps the runs'
+   * results alive.
+   */
+  public static void done() {
+    System.out.println();
+    System.out.println("(checksum " + sink + ")");
+  }
+
+  /**
+   * allocatedBytes() returns the number of bytes the current thread has
+   * allocated so far, or -1 if the JVM cannot say.
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  private static String format(double value, int decimals) {
+    return String.format("%." + decimals + "f", value);
+  }
+
+  private static String pad(String s, int width) {
+    StringBuilder sb = new StringBuilder(s);
+    while (sb.length() < width) {
+      sb.append(' ');
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,41 @@
+/* BenchSuite.java */
+
+package bench;
+
+/**
+ * The BenchSuite class runs every microbenchmark (KruskalBench,
+ * WUGraphBench, HashTableBench, DisjointSetsBench) at each size given, or
+ * at 10^4 and 10^5 by default.  Each benchmark reports its best and median
+ * time per operation and its allocation per operation; see Bench.
+ *
+ * Usage:  java [-Dbench.reps=N] bench.BenchSuite [size ...]
+ */
+
+public class BenchSuite {
+
+  public static void main(String[] args) {
+    int[] sizes = sizes(args);
+    for (int i = 0; i < sizes.length; i++) {
+      KruskalBench.run(sizes[i]);
+      WUGraphBench.run(sizes[i]);
+      HashTableBench.run(sizes[i]);
+      DisjointSetsBench.run(sizes[i]);
+    }
+    Bench.done();
+  }
+
+  /**
+   * sizes() returns the sizes named on the command line, or the defaults.
+   */
+  static int[] sizes(String[] args) {
+    if (args.length == 0) {
+      return new int[] {10000, 100000};
+    }
+    int[] sizes = new int[args.length];
+    for (int i = 0; i < args.length; i++) {
+      sizes[i] = Integer.parseInt(args[i]);
+    }
+    return sizes;
+  }
+
+}
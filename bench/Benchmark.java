@@ -0,0 +1,39 @@
+/* Benchmark.java */
+
+package bench;
+
+/**
+ * A Benchmark is one measured operation for the Bench harness.  setUp()
+ * runs before every timed call of run() and is not timed, so a benchmark
+ * that changes its data (say, by removing edges) can rebuild it.  run()
+ * does "ops" operations and returns a value computed from their results,
+ * which the harness keeps so that the JIT cannot discard the work.
+ */
+
+public abstract class Benchmark {
+
+  String name;
+  int ops;
+
+  /**
+   * Benchmark() constructs a benchmark called "name" whose run() performs
+   * "ops" operations.
+   */
+  protected Benchmark(String name, int ops) {
+    this.name = name;
+    this.ops = ops;
+  }
+
+  /**
+   * setUp() prepares the data for the next call of run().  The default does
+   * nothing.
+   */
+  public void setUp() {
+  }
+
+  /**
+   * run() performs the operations being measured.
+   */
+  public abstract long run();
+
+}
@@ -0,0 +1,82 @@
+/* DisjointSetsBench.java */
+
+package bench;
+
+import set.*;
+import java.util.SplittableRandom;
+
+/**
+ * The DisjointSetsBench class measures DisjointSets union() (a find() of
+ * each end of a random pair, then a union() if the roots differ, as
+ * Kruskal's algorithm does) and find() on a fully merged forest.  Times are
+ * per pair or per find().
+ *
+ * Usage:  java bench.DisjointSetsBench [elements ...]
+ */
+
+public class DisjointSetsBench {
+
+  public static void main(String[] args) {
+    int[] sizes = BenchSuite.sizes(args);
+    for (int i = 0; i < sizes.length; i++) {
+      run(sizes[i]);
+    }
+    Bench.done();
+  }
+
+  /**
+   * run() measures every benchmark on n elements.
+   */
+  static void run(final int n) {
+    SplittableRandom random = new SplittableRandom(6);
+    final int pairs = 2 * n;
+    final int[] a = new int[pairs];
+    final int[] b = new int[pairs];
+    for (int i = 0; i < pairs; i++) {
+      a[i] = random.nextInt(n);
+      b[i] = random.nextInt(n);
+    }
+    final int[] queries = new int[n];
+    for (int i = 0; i < n; i++) {
+      queries[i] = random.nextInt(n);
+    }
+    Bench.header("DisjointSets, n=" + n + " pairs=" + pairs);
+
+    Bench.run(new Benchmark("find() + union() per random pair", pairs) {
+      public long run() {
+        DisjointSets sets = new DisjointSets(n);
+        long unions = 0;
+        for (int i = 0; i < pairs; i++) {
+          int root1 = sets.find(a[i]);
+          int root2 = sets.find(b[i]);
+          if (root1 != root2) {
+            sets.union(root1, root2);
+            unions++;
+          }
+        }
+        return unions;
+      }
+    });
+    Bench.run(new Benchmark("find() after the unions", n) {
+      DisjointSets sets;
+      public void setUp() {
+        sets = new DisjointSets(n);
+        for (int i = 0; i < pairs; i++) {
+          int root1 = sets.find(a[i]);
+          int root2 = sets.find(b[i]);
+          if (root1 != root2) {
+            sets.union(root1, root2);
+          }
+        }
+      }
+      public long run() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+          sum += sets.find(queries[i]);
+        }
+        return sum;
+      }
+    });
+  }
+
+}
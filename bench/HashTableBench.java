@@ -0,0 +1,132 @@
+/* HashTableBench.java */
+
+package bench;
+
+import dict.*;
+import java.util.SplittableRandom;
+
+/**
+ * The HashTableBench class measures HashTableChained insert(), find() (all
+ * hits, then all misses), and remove(), with Integer keys and with String
+ * keys (whose hash codes are costlier and less regular).  Times are per
+ * key.
+ *
+ * Usage:  java bench.HashTableBench [keys ...]
+ */
+
+public class HashTableBench {
+
+  public static void main(String[] args) {
+    int[] sizes = BenchSuite.sizes(args);
+    for (int i = 0; i < sizes.length; i++) {
+      run(sizes[i]);
+    }
+    Bench.done();
+  }
+
+  /**
+   * run() measures every benchmark with n keys of each kind.
+   */
+  static void run(int n) {
+    SplittableRandom random = new SplittableRandom(5);
+    Object[] ints = new Object[n];
+    Object[] intMisses = new Object[n];
+    for (int i = 0; i < n; i++) {
+      ints[i] = Integer.valueOf(2 * i);               // distinct keys
+      intMisses[i] = Integer.valueOf(2 * random.nextInt(n) + 1);
+    }
+    shuffle(ints, random);
+    run("Integer keys n=" + n, ints, intMisses);
+
+    Object[] strings = new Object[n];
+    Object[] stringMisses = new Object[n];
+    for (int i = 0; i < n; i++) {
+      strings[i] = "vertex" + i;
+      stringMisses[i] = "vertex" + (n + random.nextInt(n));
+    }
+    shuffle(strings, random);
+    run("String keys n=" + n, strings, stringMisses);
+  }
+
+  private static void run(String kind, final Object[] keys,
+                          final Object[] misses) {
+    final int n = keys.length;
+    final HashTableChained full = new HashTableChained(n);
+    for (int i = 0; i < n; i++) {
+      full.insert(keys[i], keys[i]);
+    }
+    Bench.header("HashTableChained, " + kind);
+
+    Bench.run(new Benchmark("insert() into a table sized for n", n) {
+      HashTableChained table;
+      public void setUp() {
+        table = new HashTableChained(n);
+      }
+      public long run() {
+        for (int i = 0; i < n; i++) {
+          table.insert(keys[i], keys[i]);
+        }
+        return table.size();
+      }
+    });
+    Bench.run(new Benchmark("insert() with resizing", n) {
+      HashTableChained table;
+      public void setUp() {
+        table = new HashTableChained();
+      }
+      public long run() {
+        for (int i = 0; i < n; i++) {
+          table.insert(keys[i], keys[i]);
+        }
+        return table.size();
+      }
+    });
+    Bench.run(new Benchmark("find() hits", n) {
+      public long run() {
+        long found = 0;
+        for (int i = 0; i < n; i++) {
+          if (full.find(keys[i]) != null) {
+            found++;
+          }
+        }
+        return found;
+      }
+    });
+    Bench.run(new Benchmark("find() misses", n) {
+      public long run() {
+        long found = 0;
+        for (int i = 0; i < n; i++) {
+          if (full.find(misses[i]) != null) {
+            found++;
+          }
+        }
+        return found;
+      }
+    });
+    Bench.run(new Benchmark("remove()", n) {
+      HashTableChained table;
+      public void setUp() {
+        table = new HashTableChained(n);
+        for (int i = 0; i < n; i++) {
+          table.insert(keys[i], keys[i]);
+        }
+      }
+      public long run() {
+        for (int i = 0; i < n; i++) {
+          table.remove(keys[i]);
+        }
+        return table.size();
+      }
+    });
+  }
+
+  private static void shuffle(Object[] a, SplittableRandom random) {
+    for (int i = a.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Object swap = a[i];
+      a[i] = a[j];
+      a[j] = swap;
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+/* IngestBench.java */
+
+package bench;
+
+import graph.*;
+import java.io.*;
+import java.util.Random;
+
+/**
+ * The IngestBench class measures edge-list ingestion throughput: sequential
+ * EdgeListLoader.read() against readParallel() on 1, 2, 4, ... threads (up
+ * to the number of cores), and the final merge into a CSRGraph.
+ *
+ * Usage:  java bench.IngestBench [edges] [vertices]
+ */
+
+public class IngestBench {
+
+  private static final int REPS = 5;
+
+  public static void main(String[] args) throws IOException {
+    int edges = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+    int vertices = args.length > 1 ? Integer.parseInt(args[1]) : edges / 8;
+
+    File file = File.createTempFile("ingest", ".txt");
+    file.deleteOnExit();
+    System.out.println("Writing " + edges + " random edges on " + vertices +
+                       " vertices to " + file + ".");
+    Random random = new Random(0);
+    Writer out = new BufferedWriter(new FileWriter(file), 1 << 20);
+    for (int i = 0; i < edges; i++) {
+      out.write(random.nextInt(vertices) + " " + random.nextInt(vertices) + " " +
+                random.nextInt(1000000) + "\n");
+    }
+    out.close();
+    double mb = file.length() / 1e6;
+
+    long best = Long.MAX_VALUE;
+    EdgeBuffer buf = null;
+    for (int r = 0; r < REPS; r++) {
+      long start = System.nanoTime();
+      buf = EdgeListLoader.read(file);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    report("read()", best, mb, buf.size());
+
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= Math.max(cores, 2); threads *= 2) {
+      best = Long.MAX_VALUE;
+      for (int r = 0; r < REPS; r++) {
+        long start = System.nanoTime();
+        buf = EdgeListLoader.readParallel(file, threads);
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      report("readParallel(" + threads + ")", best, mb, buf.size());
+    }
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < REPS; r++) {
+      long start = System.nanoTime();
+      CSRGraph g = CSRGraph.fromEdges(buf.maxVertex() + 1, buf.ends1(),
+                                      buf.ends2(), buf.weights(), buf.size());
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    report("CSRGraph.fromEdges()", best, mb, buf.size());
+    System.out.println("(" + cores + " cores available)");
+  }
+
+  private static void report(String what, long nanos, double mb, int edges) {
+    double seconds = nanos / 1e9;
+    System.out.println(what + ":  " + (nanos / 1000000) + " ms,  " +
+                       Math.round(mb / seconds) + " MB/s,  " +
+                       Math.round(edges / seconds / 1e6 * 10) / 10.0 +
+                       " M edges/s");
+  }
+
+}
@@ -0,0 +1,161 @@
+/* KruskalBench.java */
+
+package bench;
+
+import gen.*;
+import graph.*;
+import graphalg.*;
+import java.util.ArrayList;
+
+/**
+ * The KruskalBench class measures Kruskal's algorithm end to end (the
+ * classic minSpanTree() and the array-based mst(), on WUGraphs and
+ * CSRGraphs) and phase by phase:  extracting the edges, sorting them,
+ * the union-find scan, and building the output tree.  The phases are
+ * timed inside Kruskal's own runs by the KruskalMetrics a KruskalListener
+ * receives, and the conversions of the result to graphs are timed on their
+ * own.  Times are per edge of the input graph.
+ *
+ * Usage:  java bench.KruskalBench [vertices ...]
+ */
+
+public class KruskalBench {
+
+  private static final int DEGREE = 8;
+
+  public static void main(String[] args) {
+    int[] sizes = BenchSuite.sizes(args);
+    for (int i = 0; i < sizes.length; i++) {
+      run(sizes[i]);
+    }
+    Bench.done();
+  }
+
+  /**
+   * run() measures every benchmark on each graph family with about n
+   * vertices.
+   */
+  static void run(int n) {
+    int side = (int) Math.sqrt(n);
+    int scale = 31 - Integer.numberOfLeadingZeros(n);
+    WeightDistribution weights = WeightDistribution.uniform(0, 1000000);
+    run("gnm n=" + n, n, GraphGenerator.gnm(n, DEGREE * n, weights, 1));
+    run("grid n=" + side * side, side * side,
+        GraphGenerator.grid(side, side, weights, 2));
+    run("rmat n=" + (1 << scale), 1 << scale,
+        GraphGenerator.rmat(scale, DEGREE * (1 << scale), weights, 3));
+  }
+
+  private static void run(String family, final int n, EdgeBuffer edges) {
+    final WUGraph g = GraphGenerator.toWUGraph(edges, n);
+    final CSRGraph csr = GraphGenerator.toCSRGraph(edges, n);
+    final int m = edges.size();
+    Bench.header("Kruskal, " + family + " m=" + m);
+
+    Bench.run(new Benchmark("minSpanTree(WUGraph)", m) {
+      public long run() {
+        return Kruskal.minSpanTree(g).edgeCount();
+      }
+    });
+    Bench.run(new Benchmark("mst(WUGraph)", m) {
+      public long run() {
+        return Kruskal.mst(g).totalWeight();
+      }
+    });
+    Bench.run(new Benchmark("mst(CSRGraph)", m) {
+      public long run() {
+        return Kruskal.mst(csr).totalWeight();
+      }
+    });
+
+    phases("mst(CSRGraph)", new Benchmark("mst(CSRGraph), listening", m) {
+      public long run() {
+        return Kruskal.mst(csr).totalWeight();
+      }
+    });
+    phases("mst(WUGraph)", new Benchmark("mst(WUGraph), listening", m) {
+      public long run() {
+        return Kruskal.mst(g).totalWeight();
+      }
+    });
+    phases("minSpanTree(WUGraph)",
+           new Benchmark("minSpanTree(WUGraph), listening", m) {
+             public long run() {
+               return Kruskal.minSpanTree(g).edgeCount();
+             }
+           });
+
+    // Each run converts a new result, since toWUGraph() keeps the graph it
+    // builds.
+    Bench.run(new Benchmark("output: toIntWUGraph()", m) {
+      MstResult tree;
+      public void setUp() {
+        tree = Kruskal.mst(csr);
+      }
+      public long run() {
+        return tree.toIntWUGraph().edgeCount();
+      }
+    });
+    Bench.run(new Benchmark("output: toWUGraph()", m) {
+      MstResult tree;
+      public void setUp() {
+        tree = Kruskal.mst(csr);
+      }
+      public long run() {
+        return tree.toWUGraph().edgeCount();
+      }
+    });
+  }
+
+  /**
+   * phases() measures "b", which must run Kruskal's "method" once, with a
+   * KruskalListener installed, and prints a line for each phase the runs'
+   * KruskalMetrics timed.  Counting the path compressions makes the
+   * union-find scan somewhat slower than it is without a listener.
+   */
+  private static void phases(String method, Benchmark b) {
+    PhaseListener listener = new PhaseListener();
+    KruskalListener old = Kruskal.getListener();
+    Kruskal.setListener(listener);
+    try {
+      Bench.run(b);
+    } finally {
+      Kruskal.setListener(old);
+    }
+    int first = listener.runs.size() - Bench.REPS;
+    for (int p = 0; p < KruskalMetrics.PHASES; p++) {
+      long[] times = new long[Bench.REPS];
+      long bytes = 0;
+      boolean timed = false;
+      for (int i = 0; i < Bench.REPS; i++) {
+        KruskalMetrics metrics = listener.runs.get(first + i);
+        times[i] = metrics.nanos[p];
+        timed = timed || times[i] > 0;
+        if (bytes >= 0) {
+          bytes = metrics.bytes[p] < 0 ? -1 : bytes + metrics.bytes[p];
+        }
+      }
+      if (timed) {
+        Bench.report(method + " phase: " + KruskalMetrics.phaseName(p), times,
+                     bytes, b.ops);
+      }
+    }
+  }
+
+  /**
+   * A PhaseListener keeps the metrics of every run of Kruskal's algorithm.
+   */
+  private static class PhaseListener implements KruskalListener {
+
+    ArrayList<KruskalMetrics> runs = new ArrayList<KruskalMetrics>();
+
+    public void started(KruskalMetrics metrics) {
+    }
+
+    public void finished(KruskalMetrics metrics) {
+      runs.add(metrics);
+    }
+
+  }
+
+}
@@ -0,0 +1,98 @@
+/* SnapshotBench.java */
+
+package bench;
+
+import dict.LongHashTable;
+import graph.*;
+import java.io.*;
+import java.util.Random;
+
+/**
+ * The SnapshotBench class compares a compressed GraphSnapshot with the
+ * plain CSR GraphFile of the same random graph: file sizes, write times,
+ * and the throughput of a full neighbor scan over each mapped file.
+ *
+ * Usage:  java bench.SnapshotBench [edges] [vertices] [maxWeight]
+ */
+
+public class SnapshotBench {
+
+  private static final int REPS = 5;
+
+  public static void main(String[] args) throws IOException {
+    int edges = args.length > 0 ? Integer.parseInt(args[0]) : 4000000;
+    int vertices = args.length > 1 ? Integer.parseInt(args[1]) : edges / 8;
+    int maxWeight = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+    System.out.println("Building " + edges + " random edges on " + vertices +
+                       " vertices, weights below " + maxWeight + ".");
+    Random random = new Random(0);
+    EdgeBuffer buf = new EdgeBuffer(edges);
+    LongHashTable seen = new LongHashTable(edges);
+    while (buf.size() < edges) {
+      int u = random.nextInt(vertices);
+      int v = random.nextInt(vertices);
+      long key = u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+      if (seen.find(key) < 0) {
+        seen.insert(key, 0);
+        buf.add(u, v, random.nextInt(maxWeight));
+      }
+    }
+    CSRGraph g = CSRGraph.fromEdges(vertices, buf.ends1(), buf.ends2(),
+                                    buf.weights(), buf.size());
+
+    File csrFile = File.createTempFile("graph", ".csr");
+    File snapFile = File.createTempFile("graph", ".snap");
+    csrFile.deleteOnExit();
+    snapFile.deleteOnExit();
+    long start = System.nanoTime();
+    GraphFile.write(g, csrFile);
+    long csrWrite = System.nanoTime() - start;
+    start = System.nanoTime();
+    GraphSnapshot.write(g, snapFile);
+    long snapWrite = System.nanoTime() - start;
+
+    System.out.println("GraphFile:      " + csrFile.length() + " bytes, written in " +
+                       csrWrite / 1000000 + " ms");
+    System.out.println("GraphSnapshot:  " + snapFile.length() + " bytes, written in " +
+                       snapWrite / 1000000 + " ms");
+    System.out.println("Compression:    " +
+                       Math.round(100.0 * csrFile.length() / snapFile.length()) / 100.0 + "x");
+
+    scan("GraphFile scan", GraphFile.map(csrFile));
+    scan("GraphSnapshot scan", GraphSnapshot.map(snapFile));
+  }
+
+  /**
+   * scan() reads every adjacency list of g REPS times and reports the best
+   * throughput in adjacency entries decoded per second.
+   */
+  private static void scan(String what, IntGraph g) {
+    int[] neighborList = new int[16];
+    int[] weightList = new int[16];
+    long best = Long.MAX_VALUE;
+    long entries = 0;
+    long checksum = 0;
+    for (int r = 0; r < REPS; r++) {
+      long start = System.nanoTime();
+      entries = 0;
+      for (int v = 0; v < g.vertexCount(); v++) {
+        int deg = g.degree(v);
+        if (deg > neighborList.length) {
+          neighborList = new int[2 * deg];
+          weightList = new int[2 * deg];
+        }
+        g.copyNeighbors(v, neighborList, weightList);
+        for (int i = 0; i < deg; i++) {
+          checksum += neighborList[i] ^ weightList[i];
+        }
+        entries += deg;
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.println(what + ":  " + best / 1000000 + " ms,  " +
+                       Math.round(entries / (best / 1e9) / 1e6) + " M entries/s" +
+                       "  (checksum " + checksum + ")");
+  }
+
+}
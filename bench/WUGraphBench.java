@@ -0,0 +1,151 @@
+/* WUGraphBench.java */
+
+package bench;
+
+import gen.*;
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * The WUGraphBench class measures the WUGraph operations Kruskal's
+ * algorithm and its callers lean on:  addEdge(), the bulk addEdges(),
+ * applyBatch() (the same additions as addEdge(), in one batch), isEdge()
+ * (half hits, half random pairs), getNeighbors(), and removeEdge(), on
+ * G(n, m) and R-MAT graphs.  Times are per edge, or per vertex for
+ * getNeighbors().
+ *
+ * Usage:  java bench.WUGraphBench [vertices ...]
+ */
+
+public class WUGraphBench {
+
+  private static final int DEGREE = 8;
+
+  public static void main(String[] args) {
+    int[] sizes = BenchSuite.sizes(args);
+    for (int i = 0; i < sizes.length; i++) {
+      run(sizes[i]);
+    }
+    Bench.done();
+  }
+
+  /**
+   * run() measures every benchmark on each graph family with about n
+   * vertices.
+   */
+  static void run(int n) {
+    int scale = 31 - Integer.numberOfLeadingZeros(n);
+    WeightDistribution weights = WeightDistribution.uniform(0, 1000000);
+    run("gnm n=" + n, n, GraphGenerator.gnm(n, DEGREE * n, weights, 1));
+    run("rmat n=" + (1 << scale), 1 << scale,
+        GraphGenerator.rmat(scale, DEGREE * (1 << scale), weights, 3));
+  }
+
+  private static void run(String family, final int n, final EdgeBuffer edges) {
+    final int m = edges.size();
+    final int[] ends1 = edges.ends1();
+    final int[] ends2 = edges.ends2();
+    final int[] weights = edges.weights();
+    final Integer[] vertex = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      vertex[i] = Integer.valueOf(i);
+    }
+    // isEdge() queries: every other one an edge of the graph
+    final Integer[] query1 = new Integer[m];
+    final Integer[] query2 = new Integer[m];
+    SplittableRandom random = new SplittableRandom(4);
+    for (int i = 0; i < m; i++) {
+      if ((i & 1) == 0) {
+        query1[i] = vertex[ends1[i]];
+        query2[i] = vertex[ends2[i]];
+      } else {
+        query1[i] = vertex[random.nextInt(n)];
+        query2[i] = vertex[random.nextInt(n)];
+      }
+    }
+    final WUGraph full = GraphGenerator.toWUGraph(edges, n);
+    Bench.header("WUGraph, " + family + " m=" + m);
+
+    Bench.run(new Benchmark("addEdge()", m) {
+      WUGraph g;
+      public void setUp() {
+        g = emptyGraph(vertex);
+      }
+      public long run() {
+        for (int i = 0; i < m; i++) {
+          g.addEdge(vertex[ends1[i]], vertex[ends2[i]], weights[i]);
+        }
+        return g.edgeCount();
+      }
+    });
+    Bench.run(new Benchmark("addEdges(unique)", m) {
+      WUGraph g;
+      public void setUp() {
+        g = emptyGraph(vertex);
+      }
+      public long run() {
+        g.addEdges(edges, true);
+        return g.edgeCount();
+      }
+    });
+    // The same additions as addEdge(), applied as one EdgeBatch
+    final EdgeBatch batch = new EdgeBatch(m);
+    for (int i = 0; i < m; i++) {
+      batch.addEdge(ends1[i], ends2[i], weights[i]);
+    }
+    Bench.run(new Benchmark("applyBatch()", m) {
+      WUGraph g;
+      public void setUp() {
+        g = emptyGraph(vertex);
+      }
+      public long run() {
+        g.applyBatch(batch);
+        return g.edgeCount();
+      }
+    });
+    Bench.run(new Benchmark("isEdge()", m) {
+      public long run() {
+        long hits = 0;
+        for (int i = 0; i < m; i++) {
+          if (full.isEdge(query1[i], query2[i])) {
+            hits++;
+          }
+        }
+        return hits;
+      }
+    });
+    Bench.run(new Benchmark("getNeighbors()", n) {
+      public long run() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+          Neighbors neigh = full.getNeighbors(vertex[i]);
+          if (neigh != null) {
+            sum += neigh.weightList.length;
+          }
+        }
+        return sum;
+      }
+    });
+    Bench.run(new Benchmark("removeEdge()", m) {
+      WUGraph g;
+      public void setUp() {
+        g = GraphGenerator.toWUGraph(edges, n);
+      }
+      public long run() {
+        for (int i = 0; i < m; i++) {
+          g.removeEdge(vertex[ends1[i]], vertex[ends2[i]]);
+        }
+        return g.edgeCount();
+      }
+    });
+  }
+
+  private static WUGraph emptyGraph(Integer[] vertex) {
+    WUGraph g = new WUGraph();
+    for (int i = 0; i < vertex.length; i++) {
+      g.addVertex(vertex[i]);
+    }
+    return g;
+  }
+
+}
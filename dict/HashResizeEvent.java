@@ -0,0 +1,34 @@
+/* HashResizeEvent.java */
+
+package dict;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A HashResizeEvent is the Flight Recorder event for one resize of a
+ * HashTableChained, whether triggered by insert() or by reserve().  Its
+ * duration is the time spent moving the entries.
+ */
+
+@Name("dict.HashTableResize")
+@Label("HashTableChained Resize")
+@Category({"Graph", "HashTableChained"})
+@Description("A HashTableChained moved its entries into a new bucket array")
+@StackTrace(true)
+class HashResizeEvent extends Event {
+
+  @Label("Old Buckets")
+  int oldBuckets;
+
+  @Label("New Buckets")
+  int newBuckets;
+
+  @Label("Entries")
+  int entries;
+
+}
@@ -0,0 +1,36 @@
+/* HashStats.java */
+
+package dict;
+
+/**
+ * The HashStats class is a snapshot of the hash quality of a
+ * HashTableChained, as returned by HashTableChained.stats().
+ *
+ * Since this class is NOT an abstract data type, but is merely a collection of
+ * data, all fields are public.
+ */
+
+public class HashStats {
+  public int numEntries;
+  public int numBuckets;
+  public double loadFactor;
+  // chainHistogram[k] is the number of buckets holding exactly k entries.
+  public int[] chainHistogram;
+  public int maxChain;
+  public int collisions;
+  public int resizes;
+  public long resizeNanos;
+  public long finds;
+  public double avgProbes;
+
+  /**
+   * toString() returns a one-line summary of "this" snapshot.  Used for
+   * logging and debugging purposes.
+   */
+  public String toString() {
+    return "entries=" + numEntries + " buckets=" + numBuckets +
+           " load=" + loadFactor + " maxChain=" + maxChain +
+           " collisions=" + collisions + " resizes=" + resizes +
+           " resizeNanos=" + resizeNanos + " avgProbes=" + avgProbes;
+  }
+}
@@ -19,9 +19,13 @@ public class HashTableChained implements Dictionary {
 
     int numEntries = 0;
     int numBuckets = 0;
+    int compPrime = 0;
     DList[] hash;
     int collisions = 0;
-    DList keys = new DList();
+    int resizes = 0;
+    long resizeNanos = 0;
+    long finds = 0;
+    long probes = 0;
 
 
 
@@ -33,6 +37,7 @@ public class HashTableChained implements Dictionary {
 
     public HashTableChained(int sizeEstimate) {
         numBuckets = generatePrime(sizeEstimate);
+        compPrime = generatePrime(numBuckets*23);
         hash = new DList[numBuckets];
     }
 
@@ -43,6 +48,7 @@ public class HashTableChained implements Dictionary {
 
     public HashTableChained() {
         numBuckets = 103;
+        compPrime = generatePrime(numBuckets*23);
         hash = new DList[103];
     }
 
@@ -64,7 +70,7 @@ public class HashTableChained implements Dictionary {
      */
     public boolean isPrime(int num) {
         int divisor = 2;
-        while (divisor < num) {
+        while (divisor <= num / divisor) {
             if (num % divisor == 0) {
                 return false;
             }
@@ -78,11 +84,12 @@ public class HashTableChained implements Dictionary {
     *  to a value in the range 0...(size of hash table) - 1.
     *
     *  This function should have package protection (so we can test it), and
-    *  should be used by insert, find, and remove.
+    *  should be used by insert, find, and remove.  The prime it reduces by
+    *  is computed once per table size (see resize()), not once per call.
     **/
 
     private int compFunction(int code) {
-        int temp = generatePrime(numBuckets*23);
+        int temp = compPrime;
         int num = ((code*13 + (int)(0.342*temp)) % temp) % numBuckets;
         if (num < 0) {
             num += numBuckets;
@@ -105,20 +112,64 @@ public class HashTableChained implements Dictionary {
     /**
      * Resizes the hashtable by double the previous numBuckets size.
      * Only called by the insert method in HashTableChained when the
-     * load factor is > 0.7.
+     * load factor is > 0.7.  The existing Entry objects are moved into
+     * the new buckets, so no entry is allocated or duplicated.
      */
     private void resize() {
-        HashTableChained temp = new HashTableChained(numBuckets);
-        temp.hash = hash;
-        numBuckets = generatePrime(numBuckets*2);
+        rehash(generatePrime(numBuckets*2));
+    }
+
+    /**
+     * Makes room for "sizeEstimate" entries in all, so that inserting up to
+     * that many entries will not trigger a resize.  Resizes at most once,
+     * and then at least doubles the number of buckets, so that a run of
+     * calls each asking for a little more room stays amortized O(1) per
+     * entry.
+     */
+    public void reserve(int sizeEstimate) {
+        int needed = (int) (sizeEstimate / 0.7) + 1;
+        if (needed > numBuckets) {
+            rehash(generatePrime(Math.max(needed, numBuckets*2)));
+        }
+    }
+
+    /**
+     * Moves every entry into a new array of "newBuckets" buckets.
+     */
+    private void rehash(int newBuckets) {
+        HashResizeEvent event = new HashResizeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        DList[] old = hash;
+        numBuckets = newBuckets;
+        compPrime = generatePrime(numBuckets*23);
         hash = new DList[numBuckets];
-        DListNode d = keys.front();
-        while (d != null) {
-            Object key = d.item;
-	    Object entry = temp.find(key);
-            insert(key, ((Entry)entry).value);
-            d = keys.next(d);
-       }
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] == null) {
+                continue;
+            }
+            DListNode d = old[i].front();
+            while (d != null) {
+                Entry entry = (Entry) d.item;
+                int hashCode = compFunction(entry.key.hashCode());
+                if (hash[hashCode] == null) {
+                    hash[hashCode] = new DList();
+                }
+                if (!hash[hashCode].isEmpty()) {
+                    collisions++;
+                }
+                hash[hashCode].insertFront(entry);
+                d = old[i].next(d);
+            }
+        }
+        resizes++;
+        resizeNanos += System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.oldBuckets = old.length;
+            event.newBuckets = numBuckets;
+            event.entries = numEntries;
+            event.commit();
+        }
     }
 
 
@@ -143,6 +194,51 @@ public class HashTableChained implements Dictionary {
         return collisions;
     }
 
+    /**
+     * Returns a snapshot of the hash quality of "this" HashTableChained:
+     * the chain-length histogram, the longest chain, the load factor, the
+     * number of resizes and the time spent in them, and the average number
+     * of entries compared per find().
+     *
+     * The snapshot is best-effort.  stats() may be called from another
+     * thread (a JMX console, say) while the table is changing; it then reads
+     * the bucket array once and never fails, but its numbers may mix the
+     * table's state before and after the concurrent changes.
+     *
+     * Running time:  O(number of buckets).
+     */
+    public HashStats stats() {
+        HashStats s = new HashStats();
+        DList[] buckets = hash;
+        int[] histogram = new int[8];
+        int maxChain = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            DList chain = buckets[i];
+            int length = chain == null ? 0 : chain.length();
+            if (length >= histogram.length) {
+                int[] larger =
+                    new int[Math.max(length + 1, 2*histogram.length)];
+                System.arraycopy(histogram, 0, larger, 0, histogram.length);
+                histogram = larger;
+            }
+            histogram[length]++;
+            maxChain = Math.max(maxChain, length);
+        }
+        s.chainHistogram = new int[maxChain + 1];
+        System.arraycopy(histogram, 0, s.chainHistogram, 0, maxChain + 1);
+        s.numEntries = numEntries;
+        s.numBuckets = buckets.length;
+        s.loadFactor = (double) s.numEntries / buckets.length;
+        s.maxChain = maxChain;
+        s.collisions = collisions;
+        s.resizes = resizes;
+        s.resizeNanos = resizeNanos;
+        long f = finds;
+        s.finds = f;
+        s.avgProbes = f == 0 ? 0.0 : (double) probes / f;
+        return s;
+    }
+
     /**
     *  Create a new Entry object referencing the input key and associated value,
     *  and insert the entry into the dictionary.  Return a reference to the new
@@ -173,7 +269,6 @@ public class HashTableChained implements Dictionary {
         }
         hash[hashCode].insertFront(enter);
         numEntries++;
-        keys.insertFront(key);
         return enter;
     }
 
@@ -191,6 +286,7 @@ public class HashTableChained implements Dictionary {
 
     public Entry find(Object key) {
         DList n = hash[compFunction(key.hashCode())];
+        finds++;
         if (n == null) {
             return null;
         } else if (n.isEmpty()) {
@@ -199,6 +295,7 @@ public class HashTableChained implements Dictionary {
             DListNode d = n.front();
 		//d is the front of the DList that may contain the key we are looking for
             while (d != null) {
+                probes++;
                 if (((Entry) d.item).key.equals(key)) {
                     return (Entry) d.item;
                 }
@@ -232,17 +329,8 @@ public class HashTableChained implements Dictionary {
             DListNode d = n.front();
             while (d != null) {
                 if (((Entry) d.item).key.equals(key)) {
-                    //First, remove d with the same key from the DList
                     n.remove(d);
-                    DListNode dInKeys = keys.front();
-                    while (dInKeys != null) {
-                        //loop through keys to find key
-                        if (dInKeys.item.equals(key)) {
-                            keys.remove(dInKeys);
-                            break;
-                        }
-                        dInKeys = keys.next(dInKeys);
-                    }
+                    numEntries--;
                     return (Entry) d.item;
                 }
                 d = n.next(d);
@@ -252,13 +340,17 @@ public class HashTableChained implements Dictionary {
     }
 
     /**
-    *  Remove all entries from the dictionary.
+    *  Remove all entries from the dictionary.  The counters reported by
+    *  stats() start again from zero.
     */
     public void makeEmpty() {
         hash = new DList[numBuckets];
         numEntries = 0;
         collisions = 0;
-        keys = new DList();
+        resizes = 0;
+        resizeNanos = 0;
+        finds = 0;
+        probes = 0;
     }
 
 
@@ -0,0 +1,103 @@
+/* HashTableMonitor.java */
+
+package dict;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The HashTableMonitor class publishes the HashStats of one HashTableChained
+ * as a JMX MBean, so degenerate hashing can be spotted from a JMX console
+ * while the table is in use.  The chain histogram, longest chain and average
+ * probe attributes take a fresh snapshot, which costs O(number of buckets),
+ * and like every attribute are best-effort while the table is changing.
+ */
+
+public class HashTableMonitor implements HashTableMonitorMBean {
+
+  private HashTableChained table;
+
+  /**
+   * HashTableMonitor() creates a monitor reporting on "table".
+   */
+  public HashTableMonitor(HashTableChained table) {
+    this.table = table;
+  }
+
+  /**
+   * register() registers a monitor for "table" with the platform MBean
+   * server under the name "dict:type=HashTableChained,name=<name>".  The
+   * server keeps the monitor, and so the table, reachable until it is
+   * unregistered; call unregister() when the table is no longer in use.
+   * @return the ObjectName used, or null if registration failed.
+   */
+  public static ObjectName register(HashTableChained table, String name) {
+    try {
+      ObjectName objName =
+        new ObjectName("dict:type=HashTableChained,name=" + name);
+      ManagementFactory.getPlatformMBeanServer()
+        .registerMBean(new HashTableMonitor(table), objName);
+      return objName;
+    } catch (JMException e) {
+      System.err.println("Could not register " + name + ": " + e);
+      return null;
+    }
+  }
+
+  /**
+   * unregister() removes the monitor registered under "name" from the
+   * platform MBean server, releasing its table.
+   * @return true if a monitor was removed, false if none was registered
+   *         under "name" or it could not be removed.
+   */
+  public static boolean unregister(ObjectName name) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+      return true;
+    } catch (InstanceNotFoundException e) {
+      return false;
+    } catch (JMException e) {
+      System.err.println("Could not unregister " + name + ": " + e);
+      return false;
+    }
+  }
+
+  public int getSize() {
+    return table.size();
+  }
+
+  public int getBuckets() {
+    return table.numBuckets;
+  }
+
+  public double getLoadFactor() {
+    return (double) table.numEntries / table.numBuckets;
+  }
+
+  public int[] getChainHistogram() {
+    return table.stats().chainHistogram;
+  }
+
+  public int getMaxChain() {
+    return table.stats().maxChain;
+  }
+
+  public int getCollisions() {
+    return table.numCollisions();
+  }
+
+  public int getResizes() {
+    return table.resizes;
+  }
+
+  public long getResizeNanos() {
+    return table.resizeNanos;
+  }
+
+  public double getAverageProbes() {
+    return table.stats().avgProbes;
+  }
+
+}
@@ -0,0 +1,30 @@
+/* HashTableMonitorMBean.java */
+
+package dict;
+
+/**
+ * The management interface through which a HashTableChained's hash quality
+ * is exposed over JMX.  See HashTableMonitor.
+ */
+
+public interface HashTableMonitorMBean {
+
+  public int getSize();
+
+  public int getBuckets();
+
+  public double getLoadFactor();
+
+  public int[] getChainHistogram();
+
+  public int getMaxChain();
+
+  public int getCollisions();
+
+  public int getResizes();
+
+  public long getResizeNanos();
+
+  public double getAverageProbes();
+
+}
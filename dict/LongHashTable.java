@@ -0,0 +1,168 @@
+/* LongHashTable.java */
+
+package dict;
+
+/**
+ *  LongHashTable maps primitive long keys to non-negative int values, with
+ *  no boxing and no per-entry objects.  It uses open addressing with linear
+ *  probing over a power-of-two table that is kept at most half full, and
+ *  removes entries by shifting later entries of the probe run back, so no
+ *  tombstones accumulate.  Each key is stored at most once; inserting an
+ *  existing key replaces its value.
+ **/
+
+public class LongHashTable {
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size;
+  private int mask;
+
+  /**
+   *  Construct a new empty table intended to hold roughly sizeEstimate
+   *  entries without resizing.
+   **/
+  public LongHashTable(int sizeEstimate) {
+    int capacity = 16;
+    while (capacity < 2 * sizeEstimate) {
+      capacity *= 2;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   *  Construct a new empty table with a default size.
+   **/
+  public LongHashTable() {
+    this(8);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+    size = 0;
+  }
+
+  /**
+   *  home() returns the first slot probed for "key".  The key is scrambled
+   *  with the MurmurHash3 finalizer so that keys differing only in their
+   *  high bits spread over the table.
+   **/
+  private int home(long key) {
+    key ^= key >>> 33;
+    key *= 0xFF51AFD7ED558CCDL;
+    key ^= key >>> 33;
+    key *= 0xC4CEB9FE1A85EC53L;
+    key ^= key >>> 33;
+    return (int) key & mask;
+  }
+
+  /**
+   *  slotOf() returns the slot holding "key", or -1 if it is absent.
+   **/
+  private int slotOf(long key) {
+    int i = home(key);
+    while (used[i]) {
+      if (keys[i] == key) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   *  Returns the number of entries stored in the table.
+   **/
+  public int size() {
+    return size;
+  }
+
+  /**
+   *  Returns the value associated with "key", or -1 if there is none.
+   **/
+  public int find(long key) {
+    int i = slotOf(key);
+    return i < 0 ? -1 : values[i];
+  }
+
+  /**
+   *  Associates "value" (which must be non-negative) with "key", replacing
+   *  any value it already had.
+   **/
+  public void insert(long key, int value) {
+    if (2 * (size + 1) > keys.length) {
+      resize();
+    }
+    int i = home(key);
+    while (used[i]) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    used[i] = true;
+    keys[i] = key;
+    values[i] = value;
+    size++;
+  }
+
+  /**
+   *  Removes "key" from the table and returns its value, or returns -1 if
+   *  it is absent.
+   **/
+  public int remove(long key) {
+    int i = slotOf(key);
+    if (i < 0) {
+      return -1;
+    }
+    int removed = values[i];
+    // Shift back any later entry of this probe run whose home slot does not
+    // lie cyclically in (i, j], so every entry stays reachable from its home.
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (!used[j]) {
+        break;
+      }
+      int k = home(keys[j]);
+      boolean stays = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+      if (!stays) {
+        keys[i] = keys[j];
+        values[i] = values[j];
+        i = j;
+      }
+    }
+    used[i] = false;
+    size--;
+    return removed;
+  }
+
+  /**
+   *  Removes all entries from the table, keeping its capacity.
+   **/
+  public void makeEmpty() {
+    java.util.Arrays.fill(used, false);
+    size = 0;
+  }
+
+  /**
+   *  Doubles the table and reinserts every entry.
+   **/
+  private void resize() {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(2 * oldKeys.length);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        insert(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+}
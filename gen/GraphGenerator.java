@@ -0,0 +1,311 @@
+/* GraphGenerator.java */
+
+package gen;
+
+import graph.*;
+import dict.*;
+import java.util.SplittableRandom;
+
+/**
+ * The GraphGenerator class builds seeded, reproducible synthetic graphs for
+ * testing and benchmarking: Erdos-Renyi G(n, m), 2D grids, R-MAT power-law
+ * graphs, complete graphs, and random geometric graphs.  Vertices are
+ * numbered 0...n - 1.  Every generator writes its edges into an EdgeBuffer,
+ * so millions of edges cost no per-edge objects; toWUGraph() and
+ * toCSRGraph() turn a buffer into a graph.
+ *
+ * The generated graphs are simple: no self-edges and no edge listed twice,
+ * so they can be loaded with WUGraph.addEdges(edges, true).  The same
+ * arguments and seed always give the same edges in the same order.
+ */
+
+public class GraphGenerator {
+
+  /**
+   * gnm() returns m edges chosen uniformly at random from all the pairs of n
+   * vertices (the Erdos-Renyi G(n, m) model).  Sparse graphs are drawn by
+   * rejecting repeated pairs; if m is more than half of all the pairs, each
+   * pair is instead kept or skipped in turn with just the right
+   * probability, so the pairs come out in order.
+   *
+   * Running time:  O(m) expected if m is at most half of all the pairs,
+   * and O(n^2) otherwise.
+   */
+  public static EdgeBuffer gnm(int n, int m, WeightDistribution weights,
+                               long seed) {
+    long pairs = (long) n * (n - 1) / 2;
+    if (m < 0 || m > pairs) {
+      throw new IllegalArgumentException("a graph on " + n +
+                                         " vertices has no " + m + " edges");
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    EdgeBuffer edges = new EdgeBuffer(m);
+    if (m > pairs / 2) {
+      long remaining = pairs;
+      long needed = m;
+      for (int u = 0; u < n && needed > 0; u++) {
+        for (int v = u + 1; v < n && needed > 0; v++) {
+          if (random.nextLong(remaining) < needed) {
+            edges.add(u, v, weights.next(random));
+            needed--;
+          }
+          remaining--;
+        }
+      }
+      return edges;
+    }
+    LongHashTable seen = new LongHashTable(m);
+    while (edges.size() < m) {
+      int u = random.nextInt(n);
+      int v = random.nextInt(n);
+      if (u != v && addPair(seen, u, v)) {
+        edges.add(u, v, weights.next(random));
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * grid() returns the edges of a rows-by-cols grid, in which vertex
+   * r * cols + c is joined to its neighbors above, below, left, and right.
+   *
+   * Running time:  O(rows * cols).
+   */
+  public static EdgeBuffer grid(int rows, int cols, WeightDistribution weights,
+                                long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    EdgeBuffer edges = new EdgeBuffer(2 * rows * cols);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        int v = r * cols + c;
+        if (c + 1 < cols) {
+          edges.add(v, v + 1, weights.next(random));
+        }
+        if (r + 1 < rows) {
+          edges.add(v, v + cols, weights.next(random));
+        }
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * rmat() returns an R-MAT graph on 2^scale vertices with the Graph 500
+   * quadrant probabilities (0.57, 0.19, 0.19, 0.05), as below.
+   */
+  public static EdgeBuffer rmat(int scale, int m, WeightDistribution weights,
+                                long seed) {
+    return rmat(scale, m, 0.57, 0.19, 0.19, weights, seed);
+  }
+
+  /**
+   * rmat() returns an R-MAT graph on 2^scale vertices: each edge picks one
+   * quadrant of the adjacency matrix with probabilities a, b, c, and
+   * 1 - a - b - c, then a quadrant of that quadrant, and so on for "scale"
+   * levels.  The degrees follow a power law, with a few hub vertices.  The
+   * vertex numbers are then shuffled so that the hubs are not all near
+   * vertex zero.  Self-edges and repeated edges are drawn again; if m
+   * distinct edges are not found within 100 * m draws (m is too close to
+   * what the skew allows), fewer edges are returned.
+   *
+   * Running time:  O(m * scale + 2^scale) expected.
+   */
+  public static EdgeBuffer rmat(int scale, int m, double a, double b, double c,
+                                WeightDistribution weights, long seed) {
+    if (scale < 1 || scale > 30) {
+      throw new IllegalArgumentException("R-MAT scale " + scale +
+                                         " is not in 1...30");
+    }
+    int n = 1 << scale;
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] label = new int[n];
+    for (int v = 0; v < n; v++) {
+      label[v] = v;
+    }
+    for (int v = n - 1; v > 0; v--) {
+      int w = random.nextInt(v + 1);
+      int swap = label[v];
+      label[v] = label[w];
+      label[w] = swap;
+    }
+
+    EdgeBuffer edges = new EdgeBuffer(m);
+    LongHashTable seen = new LongHashTable(m);
+    double ab = a + b;
+    double abc = a + b + c;
+    long draws = 100L * m;
+    while (edges.size() < m && draws-- > 0) {
+      int u = 0;
+      int v = 0;
+      for (int bit = n >> 1; bit != 0; bit >>= 1) {
+        double r = random.nextDouble();
+        if (r >= abc) {
+          u |= bit;
+          v |= bit;
+        } else if (r >= ab) {
+          u |= bit;
+        } else if (r >= a) {
+          v |= bit;
+        }
+      }
+      if (u != v && addPair(seen, u, v)) {
+        edges.add(label[u], label[v], weights.next(random));
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * complete() returns all n(n - 1)/2 edges of the complete graph on n
+   * vertices.
+   *
+   * Running time:  O(n^2).
+   */
+  public static EdgeBuffer complete(int n, WeightDistribution weights,
+                                    long seed) {
+    long pairs = (long) n * (n - 1) / 2;
+    if (pairs > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("the complete graph on " + n +
+                                         " vertices is too large");
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    EdgeBuffer edges = new EdgeBuffer((int) pairs);
+    for (int u = 0; u < n; u++) {
+      for (int v = u + 1; v < n; v++) {
+        edges.add(u, v, weights.next(random));
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * geometric() returns a random geometric graph: n points dropped uniformly
+   * in the unit square, with an edge between every two points less than
+   * "radius" apart.  Each edge's weight is its length times "scale",
+   * rounded down, so the weights obey the triangle inequality (up to
+   * rounding).
+   *
+   * Running time:  O(n + m) expected, where m is the number of edges.
+   */
+  public static EdgeBuffer geometric(int n, double radius, int scale,
+                                     long seed) {
+    return geometric(n, radius, null, scale, seed);
+  }
+
+  /**
+   * geometric() returns a random geometric graph as above, with weights
+   * drawn from "weights" instead of taken from the edges' lengths.
+   */
+  public static EdgeBuffer geometric(int n, double radius,
+                                     WeightDistribution weights, long seed) {
+    return geometric(n, radius, weights, 0, seed);
+  }
+
+  /**
+   * geometric() drops the points, sorts them into square cells at least
+   * "radius" wide, and compares each point only with the points in its own
+   * cell and the four neighboring cells that come after it, so that each
+   * close pair is found once.
+   */
+  private static EdgeBuffer geometric(int n, double radius,
+                                      WeightDistribution weights, int scale,
+                                      long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+      y[i] = random.nextDouble();
+    }
+    int side = (int) Math.max(1, Math.min(1.0 / radius, Math.sqrt(n) + 1));
+    int[] cellOf = new int[n];
+    int[] cellStart = new int[side * side + 1];
+    for (int i = 0; i < n; i++) {
+      int cx = Math.min((int) (x[i] * side), side - 1);
+      int cy = Math.min((int) (y[i] * side), side - 1);
+      cellOf[i] = cy * side + cx;
+      cellStart[cellOf[i] + 1]++;
+    }
+    for (int k = 0; k < side * side; k++) {
+      cellStart[k + 1] += cellStart[k];
+    }
+    int[] fill = new int[side * side];
+    System.arraycopy(cellStart, 0, fill, 0, side * side);
+    int[] points = new int[n];
+    for (int i = 0; i < n; i++) {
+      points[fill[cellOf[i]]++] = i;
+    }
+
+    // (0, 0) is the cell itself; the others are the cells after it
+    int[] dx = {0, 1, -1, 0, 1};
+    int[] dy = {0, 0, 1, 1, 1};
+    double r2 = radius * radius;
+    EdgeBuffer edges = new EdgeBuffer(n);
+    for (int cy = 0; cy < side; cy++) {
+      for (int cx = 0; cx < side; cx++) {
+        int cell = cy * side + cx;
+        for (int d = 0; d < dx.length; d++) {
+          int ox = cx + dx[d];
+          int oy = cy + dy[d];
+          if (ox < 0 || ox >= side || oy >= side) {
+            continue;
+          }
+          int other = oy * side + ox;
+          for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+            int i = points[p];
+            int q = d == 0 ? p + 1 : cellStart[other];
+            for (; q < cellStart[other + 1]; q++) {
+              int j = points[q];
+              double ex = x[i] - x[j];
+              double ey = y[i] - y[j];
+              double dist2 = ex * ex + ey * ey;
+              if (dist2 < r2) {
+                int w = weights != null ? weights.next(random)
+                                        : (int) (Math.sqrt(dist2) * scale);
+                edges.add(i, j, w);
+              }
+            }
+          }
+        }
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * toWUGraph() returns a new WUGraph whose vertices are Integer.valueOf(0)
+   * through Integer.valueOf(n - 1) (including any that no edge touches) and
+   * whose edges are "edges".
+   */
+  public static WUGraph toWUGraph(EdgeBuffer edges, int n) {
+    WUGraph g = new WUGraph();
+    for (int i = 0; i < n; i++) {
+      g.addVertex(Integer.valueOf(i));
+    }
+    g.addEdges(edges, true);
+    return g;
+  }
+
+  /**
+   * toCSRGraph() returns a new CSRGraph on vertices 0...n - 1 whose edges
+   * are "edges".
+   */
+  public static CSRGraph toCSRGraph(EdgeBuffer edges, int n) {
+    return CSRGraph.fromEdges(n, edges.ends1(), edges.ends2(),
+                              edges.weights(), edges.size());
+  }
+
+  /**
+   * addPair() records the unordered pair (u, v) in "seen" and returns true,
+   * or returns false if the pair was already there.
+   */
+  private static boolean addPair(LongHashTable seen, int u, int v) {
+    long key = u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+    if (seen.find(key) >= 0) {
+      return false;
+    }
+    seen.insert(key, 0);
+    return true;
+  }
+
+}
@@ -0,0 +1,78 @@
+/* WeightDistribution.java */
+
+package gen;
+
+import java.util.SplittableRandom;
+
+/**
+ * A WeightDistribution draws edge weights for the graphs GraphGenerator
+ * builds.  Every draw takes the generator's own SplittableRandom, so a graph
+ * built from the same seed always gets the same weights.
+ */
+
+public abstract class WeightDistribution {
+
+  /**
+   * next() draws one weight.
+   */
+  public abstract int next(SplittableRandom random);
+
+  /**
+   * constant() returns a distribution that always draws "weight".  Every
+   * spanning tree is then a minimum one, which exercises tie handling.
+   */
+  public static WeightDistribution constant(final int weight) {
+    return new WeightDistribution() {
+      public int next(SplittableRandom random) {
+        return weight;
+      }
+    };
+  }
+
+  /**
+   * uniform() returns a distribution drawing weights uniformly from
+   * lo...hi - 1.
+   */
+  public static WeightDistribution uniform(final int lo, final int hi) {
+    return new WeightDistribution() {
+      public int next(SplittableRandom random) {
+        return random.nextInt(lo, hi);
+      }
+    };
+  }
+
+  /**
+   * exponential() returns a distribution drawing weights from an exponential
+   * distribution of the given mean, rounded down (so most edges are light
+   * and a few are very heavy).
+   */
+  public static WeightDistribution exponential(final double mean) {
+    return new WeightDistribution() {
+      public int next(SplittableRandom random) {
+        double w = -mean * Math.log(1.0 - random.nextDouble());
+        return (int) Math.min(w, Integer.MAX_VALUE);
+      }
+    };
+  }
+
+  /**
+   * normal() returns a distribution drawing weights from a normal
+   * distribution of the given mean and standard deviation, rounded to the
+   * nearest int (and so possibly negative).
+   */
+  public static WeightDistribution normal(final double mean,
+                                          final double deviation) {
+    return new WeightDistribution() {
+      public int next(SplittableRandom random) {
+        // Box-Muller; one of the pair of deviates is thrown away
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        double z = Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+        double w = Math.rint(mean + deviation * z);
+        return (int) Math.max(Integer.MIN_VALUE,
+                              Math.min(w, Integer.MAX_VALUE));
+      }
+    };
+  }
+
+}
@@ -0,0 +1,86 @@
+/* BufferArray.java */
+
+package graph;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A BufferArray is a fixed-length array of bytes, ints or longs stored outside the
+ * Java heap, in ByteBuffers of at most 2^30 bytes each, so it may hold more
+ * than Integer.MAX_VALUE bytes.  The buffers are either allocated directly
+ * or mapped from a file (see GraphFile).  Elements are little-endian, and
+ * never straddle two buffers.  Only for use by the CSR graph classes.
+ */
+
+class BufferArray {
+
+    static final int CHUNK_SHIFT = 30;
+    static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+
+    private ByteBuffer[] chunks;
+    private long length;
+    private int elementShift;
+
+    /**
+     * Creates a BufferArray of "length" elements of 2^elementShift bytes
+     * each over "chunks", which must hold CHUNK_BYTES bytes apiece except
+     * possibly the last.
+     */
+    BufferArray(ByteBuffer[] chunks, long length, int elementShift) {
+        this.chunks = chunks;
+        this.length = length;
+        this.elementShift = elementShift;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Allocates a zeroed BufferArray of "length" bytes (elementShift 0),
+     * ints (elementShift 2) or longs (elementShift 3) in direct buffers.
+     */
+    static BufferArray allocateDirect(long length, int elementShift) {
+        long bytes = length << elementShift;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect((int) Math.min(CHUNK_BYTES, bytes - ((long) i << CHUNK_SHIFT)));
+        }
+        return new BufferArray(chunks, length, elementShift);
+    }
+
+    long length() {
+        return length;
+    }
+
+    /**
+     * Returns the buffers holding this array's bytes, in order.
+     */
+    ByteBuffer[] chunks() {
+        return chunks;
+    }
+
+    byte getByte(long i) {
+        return chunks[(int) (i >>> CHUNK_SHIFT)].get((int) (i & (CHUNK_BYTES - 1)));
+    }
+
+    int getInt(long i) {
+        long b = i << 2;
+        return chunks[(int) (b >>> CHUNK_SHIFT)].getInt((int) (b & (CHUNK_BYTES - 1)));
+    }
+
+    void putInt(long i, int value) {
+        long b = i << 2;
+        chunks[(int) (b >>> CHUNK_SHIFT)].putInt((int) (b & (CHUNK_BYTES - 1)), value);
+    }
+
+    long getLong(long i) {
+        long b = i << 3;
+        return chunks[(int) (b >>> CHUNK_SHIFT)].getLong((int) (b & (CHUNK_BYTES - 1)));
+    }
+
+    void putLong(long i, long value) {
+        long b = i << 3;
+        chunks[(int) (b >>> CHUNK_SHIFT)].putLong((int) (b & (CHUNK_BYTES - 1)), value);
+    }
+
+}
@@ -0,0 +1,177 @@
+/* CSRGraph.java */
+
+package graph;
+
+/**
+ * The CSRGraph class is a read-only weighted, undirected graph on the
+ * vertices 0...n - 1, stored in compressed sparse row form outside the Java
+ * heap.  The neighbors of vertex v are targets[offsets[v]...offsets[v + 1] - 1],
+ * with the corresponding edge weights at the same positions of weights.
+ * Every edge (u, v) with u != v is stored once in each direction; a
+ * self-edge is stored once.
+ *
+ * offsets, targets and weights are BufferArrays, so the Java heap holds only
+ * a handful of objects however many edges the graph has, and the garbage
+ * collector never scans the edges.
+ */
+
+public class CSRGraph implements IntGraph {
+
+    private int numVertices;
+    private int numEdges;
+    private BufferArray offsets;
+    private BufferArray targets;
+    private BufferArray weights;
+
+    /**
+    * CSRGraph() wraps existing CSR arrays: offsets holds numVertices + 1
+    * longs, and targets and weights hold offsets[numVertices] ints each.
+    */
+    CSRGraph(int numVertices, int numEdges, BufferArray offsets,
+             BufferArray targets, BufferArray weights) {
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+    * fromEdges() builds a CSRGraph with vertices 0...numVertices - 1 from the
+    * first numEdges edges (ends1[i], ends2[i]) of weight weights[i].  Every
+    * endpoint must be in range, and no edge may be given twice.
+    *
+    * Running time:  O(numVertices + numEdges).
+    */
+    public static CSRGraph fromEdges(int numVertices, int[] ends1, int[] ends2,
+                                     int[] weights, int numEdges) {
+        BufferArray offsets = BufferArray.allocateDirect(numVertices + 1, 3);
+        long entries = 0;
+        for (int i = 0; i < numEdges; i++) {
+            offsets.putLong(ends1[i] + 1, offsets.getLong(ends1[i] + 1) + 1);
+            entries++;
+            if (ends1[i] != ends2[i]) {
+                offsets.putLong(ends2[i] + 1, offsets.getLong(ends2[i] + 1) + 1);
+                entries++;
+            }
+        }
+        for (int v = 0; v < numVertices; v++) {
+            offsets.putLong(v + 1, offsets.getLong(v + 1) + offsets.getLong(v));
+        }
+        BufferArray targetArray = BufferArray.allocateDirect(entries, 2);
+        BufferArray weightArray = BufferArray.allocateDirect(entries, 2);
+        //offsets[v] serves as vertex v's fill cursor, and ends up at offsets[v + 1]
+        for (int i = 0; i < numEdges; i++) {
+            long pos = offsets.getLong(ends1[i]);
+            targetArray.putInt(pos, ends2[i]);
+            weightArray.putInt(pos, weights[i]);
+            offsets.putLong(ends1[i], pos + 1);
+            if (ends1[i] != ends2[i]) {
+                pos = offsets.getLong(ends2[i]);
+                targetArray.putInt(pos, ends1[i]);
+                weightArray.putInt(pos, weights[i]);
+                offsets.putLong(ends2[i], pos + 1);
+            }
+        }
+        for (int v = numVertices; v > 0; v--) {
+            offsets.putLong(v, offsets.getLong(v - 1));
+        }
+        offsets.putLong(0, 0);
+        return new CSRGraph(numVertices, numEdges, offsets, targetArray, weightArray);
+    }
+
+    /**
+    * copyOf() builds a CSRGraph holding the same vertices and edges as g.
+    *
+    * Running time:  O(|V| + |E|).
+    */
+    public static CSRGraph copyOf(IntGraph g) {
+        int n = g.vertexCount();
+        BufferArray offsets = BufferArray.allocateDirect(n + 1, 3);
+        for (int v = 0; v < n; v++) {
+            offsets.putLong(v + 1, offsets.getLong(v) + g.degree(v));
+        }
+        long entries = offsets.getLong(n);
+        BufferArray targetArray = BufferArray.allocateDirect(entries, 2);
+        BufferArray weightArray = BufferArray.allocateDirect(entries, 2);
+        int[] neighborList = new int[16];
+        int[] weightList = new int[16];
+        long pos = 0;
+        for (int v = 0; v < n; v++) {
+            int deg = g.degree(v);
+            if (deg > neighborList.length) {
+                neighborList = new int[Math.max(deg, 2 * neighborList.length)];
+                weightList = new int[neighborList.length];
+            }
+            g.copyNeighbors(v, neighborList, weightList);
+            for (int i = 0; i < deg; i++) {
+                targetArray.putInt(pos, neighborList[i]);
+                weightArray.putInt(pos, weightList[i]);
+                pos++;
+            }
+        }
+        return new CSRGraph(n, g.edgeCount(), offsets, targetArray, weightArray);
+    }
+
+    /**
+    * vertexCount() returns the number of vertices in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int vertexCount() {
+        return numVertices;
+    }
+
+    /**
+    * edgeCount() returns the total number of edges in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int edgeCount() {
+        return numEdges;
+    }
+
+    /**
+    * degree() returns the degree of a vertex.  Self-edges add only one to the
+    * degree of a vertex.  If the parameter "vertex" doesn't represent a vertex
+    * of the graph, zero is returned.
+    *
+    * Running time:  O(1).
+    */
+    public int degree(int vertex) {
+        if (vertex < 0 || vertex >= numVertices) {
+            return 0;
+        }
+        return (int) (offsets.getLong(vertex + 1) - offsets.getLong(vertex));
+    }
+
+    /**
+    * copyNeighbors() copies the neighbors of "vertex" and the weights of the
+    * corresponding edges into the given arrays and returns the number
+    * copied.  See IntGraph.
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+    public int copyNeighbors(int vertex, int[] neighborList, int[] weightList) {
+        int deg = degree(vertex);
+        long start = deg == 0 ? 0 : offsets.getLong(vertex);
+        for (int i = 0; i < deg; i++) {
+            neighborList[i] = targets.getInt(start + i);
+            weightList[i] = weights.getInt(start + i);
+        }
+        return deg;
+    }
+
+    BufferArray offsets() {
+        return offsets;
+    }
+
+    BufferArray targets() {
+        return targets;
+    }
+
+    BufferArray weights() {
+        return weights;
+    }
+
+}
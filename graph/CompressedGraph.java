@@ -0,0 +1,104 @@
+/* CompressedGraph.java */
+
+package graph;
+
+/**
+ * The CompressedGraph class is a read-only IntGraph over a memory-mapped
+ * GraphSnapshot.  Adjacency lists stay gap- and varint-encoded in the
+ * mapping and are decoded one vertex at a time, as they are read, so
+ * iterating over the whole graph streams through the file without ever
+ * inflating it.  See GraphSnapshot for the encoding.
+ */
+
+public class CompressedGraph implements IntGraph {
+
+    private int numVertices;
+    private int numEdges;
+    private BufferArray index;
+    private BufferArray data;
+
+    CompressedGraph(int numVertices, int numEdges, BufferArray index, BufferArray data) {
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.index = index;
+        this.data = data;
+    }
+
+    /**
+    * vertexCount() returns the number of vertices in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int vertexCount() {
+        return numVertices;
+    }
+
+    /**
+    * edgeCount() returns the total number of edges in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int edgeCount() {
+        return numEdges;
+    }
+
+    /**
+    * degree() returns the degree of a vertex, or zero if "vertex" is not a
+    * vertex of the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int degree(int vertex) {
+        if (vertex < 0 || vertex >= numVertices) {
+            return 0;
+        }
+        return (int) varint(index.getLong(vertex));
+    }
+
+    /**
+    * copyNeighbors() decodes the neighbors of "vertex", in increasing order,
+    * and the weights of the corresponding edges into the given arrays, and
+    * returns the number decoded.  See IntGraph.
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+    public int copyNeighbors(int vertex, int[] neighborList, int[] weightList) {
+        if (vertex < 0 || vertex >= numVertices) {
+            return 0;
+        }
+        long pos = index.getLong(vertex);
+        long x = varint(pos);
+        int deg = (int) x;
+        pos += x >>> 32;
+        int prev = vertex;
+        for (int i = 0; i < deg; i++) {
+            x = varint(pos);
+            pos += x >>> 32;
+            prev = i == 0 ? vertex + GraphSnapshot.unzigzag((int) x) : prev + (int) x;
+            neighborList[i] = prev;
+            x = varint(pos);
+            pos += x >>> 32;
+            weightList[i] = GraphSnapshot.unzigzag((int) x);
+        }
+        return deg;
+    }
+
+    /**
+    * varint() decodes the varint at position "pos" of the data.  It returns
+    * the varint's value in the low 32 bits and its length in bytes in the
+    * high 32 bits.
+    */
+    private long varint(long pos) {
+        int x = 0;
+        int shift = 0;
+        long start = pos;
+        byte b;
+        do {
+            b = data.getByte(pos++);
+            x |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (x & 0xFFFFFFFFL) | ((pos - start) << 32);
+    }
+
+}
@@ -1,34 +1,44 @@
-
-package graph;
-import list.*;
-
-/**
- * The Edge class is used to represent edges via method iii
- * (under design element 4 in the readme). An edge has a
- * reference to the two DLists of the vertices the edge connects to
- * that represents which edges each vertex is connected to.
- */
-
-class Edge {
-    protected DListNode thisDListNode;
-    protected DListNode otherDListNode;
-    protected Object thisVertex;
-    protected Object otherVertex;
-    protected int weight;
-
-
-    /**
-     * Creates an Edge object with start vertex "start", end vertex "end", and references
-     * to the DList of edges for both "start" and "end".
-     */
-    protected Edge(Object thisVertex, Object otherVertex, DListNode thisDList, DListNode otherDList, int weight) {
-        this.thisVertex = thisVertex;
-        this.otherVertex = otherVertex;
-        this.thisDListNode = thisDList;
-        this.otherDListNode = otherDList;
-        this.weight = weight;
-    }
-
-
-
-}
+
+package graph;
+
+/**
+ * The Edge class is the record WUGraph keeps for each edge.  One Edge is
+ * shared by both endpoints: it is stored in the adjacency array of each
+ * endpoint's VSentinel and is the value of the edge's entry in hashEdges.
+ * An Edge remembers the slot it occupies in each adjacency array, so it
+ * can be removed from either array in O(1) time.
+ */
+
+class Edge {
+    protected VSentinel end1;
+    protected VSentinel end2;
+    protected int slot1;
+    protected int slot2;
+    protected int weight;
+
+
+    /**
+     * Creates an Edge object connecting "end1" and "end2" with weight
+     * "weight".  The slots are filled in when the edge is attached to the
+     * endpoints' adjacency arrays.
+     */
+    protected Edge(VSentinel end1, VSentinel end2, int weight) {
+        this.end1 = end1;
+        this.end2 = end2;
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the endpoint of this edge that is not "end".  For a
+     * self-edge, returns "end".
+     */
+    protected VSentinel other(VSentinel end) {
+        if (end1 == end) {
+            return end2;
+        }
+        return end1;
+    }
+
+
+
+}
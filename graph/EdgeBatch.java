@@ -0,0 +1,115 @@
+/* EdgeBatch.java */
+
+package graph;
+
+/**
+ * An EdgeBatch is a list of edge changes (additions, reweightings and
+ * removals) between int vertices, to be applied to a WUGraph all at once
+ * by WUGraph.applyBatch().  Vertex i of the batch is the vertex
+ * Integer.valueOf(i), as in an EdgeBuffer.  The changes' edges are kept in
+ * an EdgeBuffer (a removal's weight is unused), with a parallel array that
+ * marks the removals, so that a batch costs no per-change objects and can
+ * be cleared and refilled tick after tick.
+ */
+
+public class EdgeBatch {
+
+  private final EdgeBuffer edges;
+  private boolean[] removals;
+  private int additions;
+
+  /**
+   * EdgeBatch() constructs an empty batch with room for roughly "capacity"
+   * changes before it has to grow.
+   */
+  public EdgeBatch(int capacity) {
+    edges = new EdgeBuffer(capacity);
+    removals = new boolean[edges.weights().length];
+  }
+
+  /**
+   * EdgeBatch() constructs an empty batch with a default capacity.
+   */
+  public EdgeBatch() {
+    this(16);
+  }
+
+  /**
+   * addEdge() appends a change that adds the edge (u, v) with weight
+   * "weight", or reweights it if it is already in the graph, as
+   * WUGraph.addEdge() would.
+   * Performance:  runs in O(1) amortized time.
+   * @throws IllegalArgumentException if u or v is negative.
+   */
+  public void addEdge(int u, int v, int weight) {
+    append(u, v, weight, false);
+    additions++;
+  }
+
+  /**
+   * removeEdge() appends a change that removes the edge (u, v), as
+   * WUGraph.removeEdge() would.
+   * Performance:  runs in O(1) amortized time.
+   * @throws IllegalArgumentException if u or v is negative.
+   */
+  public void removeEdge(int u, int v) {
+    append(u, v, 0, true);
+  }
+
+  private void append(int u, int v, int weight, boolean removal) {
+    edges.add(u, v, weight);
+    int size = edges.size();
+    if (size > removals.length) {
+      boolean[] grown = new boolean[edges.weights().length];
+      System.arraycopy(removals, 0, grown, 0, size - 1);
+      removals = grown;
+    }
+    removals[size - 1] = removal;
+  }
+
+  /**
+   * clear() empties the batch, keeping its arrays for reuse.
+   */
+  public void clear() {
+    edges.clear();
+    additions = 0;
+  }
+
+  /**
+   * size() returns the number of changes in the batch.
+   */
+  public int size() {
+    return edges.size();
+  }
+
+  /**
+   * additions() returns the number of changes made by addEdge().
+   */
+  public int additions() {
+    return additions;
+  }
+
+  /**
+   * ends1(), ends2(), weights() and removals() return the batch's arrays
+   * themselves (not copies).  Change i is to the edge (ends1()[i],
+   * ends2()[i]); it removes the edge if removals()[i] is true, and otherwise
+   * adds it with weight weights()[i].  Only the first size() entries are
+   * meaningful.
+   */
+  int[] ends1() {
+    return edges.ends1();
+  }
+
+  int[] ends2() {
+    return edges.ends2();
+  }
+
+  int[] weights() {
+    return edges.weights();
+  }
+
+  boolean[] removals() {
+    return removals;
+  }
+
+}
@@ -0,0 +1,128 @@
+/* EdgeBuffer.java */
+
+package graph;
+
+/**
+ * An EdgeBuffer is a growable list of weighted edges between int vertices,
+ * kept in three parallel int arrays so that millions of edges cost no
+ * per-edge objects.  It is what EdgeListLoader produces and what the bulk
+ * loading methods (WUGraph.addEdges(), CSRGraph.fromEdges()) consume.
+ */
+
+public class EdgeBuffer {
+
+  private int[] ends1;
+  private int[] ends2;
+  private int[] weights;
+  private int size;
+  private int maxVertex = -1;
+
+  /**
+   * EdgeBuffer() constructs an empty buffer with room for roughly
+   * "capacity" edges before it has to grow.
+   */
+  public EdgeBuffer(int capacity) {
+    capacity = Math.max(capacity, 16);
+    ends1 = new int[capacity];
+    ends2 = new int[capacity];
+    weights = new int[capacity];
+  }
+
+  /**
+   * EdgeBuffer() constructs an empty buffer with a default capacity.
+   */
+  public EdgeBuffer() {
+    this(16);
+  }
+
+  /**
+   * add() appends the edge (u, v) with weight "weight".
+   * Performance:  runs in O(1) amortized time.
+   * @throws IllegalArgumentException if u or v is negative.
+   */
+  public void add(int u, int v, int weight) {
+    if (u < 0 || v < 0) {
+      throw new IllegalArgumentException("negative vertex: (" + u + ", " + v + ")");
+    }
+    if (size == weights.length) {
+      grow(2 * size);
+    }
+    ends1[size] = u;
+    ends2[size] = v;
+    weights[size] = weight;
+    size++;
+    if (u > maxVertex) {
+      maxVertex = u;
+    }
+    if (v > maxVertex) {
+      maxVertex = v;
+    }
+  }
+
+  /**
+   * addAll() appends all the edges of "other".
+   */
+  public void addAll(EdgeBuffer other) {
+    if (size + other.size > weights.length) {
+      grow(Math.max(size + other.size, 2 * size));
+    }
+    System.arraycopy(other.ends1, 0, ends1, size, other.size);
+    System.arraycopy(other.ends2, 0, ends2, size, other.size);
+    System.arraycopy(other.weights, 0, weights, size, other.size);
+    size += other.size;
+    maxVertex = Math.max(maxVertex, other.maxVertex);
+  }
+
+  private void grow(int capacity) {
+    int[] grown1 = new int[capacity];
+    int[] grown2 = new int[capacity];
+    int[] grownWeights = new int[capacity];
+    System.arraycopy(ends1, 0, grown1, 0, size);
+    System.arraycopy(ends2, 0, grown2, 0, size);
+    System.arraycopy(weights, 0, grownWeights, 0, size);
+    ends1 = grown1;
+    ends2 = grown2;
+    weights = grownWeights;
+  }
+
+  /**
+   * clear() empties the buffer, keeping its arrays for reuse.
+   */
+  public void clear() {
+    size = 0;
+    maxVertex = -1;
+  }
+
+  /**
+   * size() returns the number of edges in the buffer.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * maxVertex() returns the largest vertex appearing in the buffer, or -1
+   * if it is empty.
+   */
+  public int maxVertex() {
+    return maxVertex;
+  }
+
+  /**
+   * ends1(), ends2() and weights() return the buffer's arrays themselves
+   * (not copies).  Edge i is (ends1()[i], ends2()[i]) with weight
+   * weights()[i], for i < size(); the arrays may be longer than size().
+   */
+  public int[] ends1() {
+    return ends1;
+  }
+
+  public int[] ends2() {
+    return ends2;
+  }
+
+  public int[] weights() {
+    return weights;
+  }
+
+}
@@ -0,0 +1,345 @@
+/* EdgeListLoader.java */
+
+package graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The EdgeListLoader class reads text edge lists into EdgeBuffers.  An edge
+ * list has one edge per line, written "u v w": two non-negative int
+ * vertices and an int weight, separated by spaces or tabs.  Blank lines and
+ * lines starting with '#' or '%' are skipped.  A number too large for an
+ * int is an error, not silently wrapped.
+ *
+ * The file is read through a FileChannel in large blocks and the ints are
+ * parsed straight from the bytes, so no String or other object is created
+ * per line.
+ */
+
+public class EdgeListLoader {
+
+  private static final int BLOCK_BYTES = 1 << 20;
+
+  /**
+   * read() reads the edge list "file" into a new EdgeBuffer.
+   * @throws IOException if the file cannot be read or a line is malformed.
+   */
+  public static EdgeBuffer read(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      EdgeBuffer edges = new EdgeBuffer((int) Math.min(size / 8, 1 << 24));
+      readRange(channel, 0, size, edges);
+      return edges;
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * readParallel() reads the edge list "file" into a new EdgeBuffer using
+   * "threads" worker threads.  The file is cut into byte ranges that start
+   * and end at line boundaries; each worker parses its ranges into its own
+   * EdgeBuffer, and the buffers are concatenated in file order at the end,
+   * so the result is the same as read()'s.
+   * @throws IOException if the file cannot be read or a line is malformed.
+   * @throws IllegalArgumentException if "threads" is less than one.
+   */
+  public static EdgeBuffer readParallel(File file, int threads) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      int numChunks = (int) Math.max(1, Math.min(4L * threads, size / BLOCK_BYTES));
+      long[] bounds = new long[numChunks + 1];
+      for (int c = 1; c < numChunks; c++) {
+        bounds[c] = lineStart(channel, Math.max(bounds[c - 1], size * c / numChunks));
+      }
+      bounds[numChunks] = size;
+
+      EdgeBuffer[] chunkEdges = new EdgeBuffer[numChunks];
+      ChunkReader[] readers = new ChunkReader[Math.min(threads, numChunks)];
+      Thread[] workers = new Thread[readers.length];
+      for (int t = 0; t < workers.length; t++) {
+        readers[t] = new ChunkReader(channel, bounds, chunkEdges, t, workers.length);
+        workers[t] = new Thread(readers[t], "EdgeListLoader-" + t);
+        workers[t].start();
+      }
+      for (int t = 0; t < workers.length; t++) {
+        try {
+          workers[t].join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("interrupted while reading " + file);
+        }
+      }
+      //report the failure that comes first in the file, as read() would
+      ChunkReader failed = null;
+      for (int t = 0; t < readers.length; t++) {
+        if (readers[t].error != null &&
+            (failed == null || readers[t].errorChunk < failed.errorChunk)) {
+          failed = readers[t];
+        }
+      }
+      if (failed != null) {
+        if (failed.error instanceof IOException) {
+          throw (IOException) failed.error;
+        } else if (failed.error instanceof RuntimeException) {
+          throw (RuntimeException) failed.error;
+        }
+        throw (Error) failed.error;
+      }
+      int total = 0;
+      for (int c = 0; c < numChunks; c++) {
+        total += chunkEdges[c].size();
+      }
+      EdgeBuffer edges = new EdgeBuffer(total);
+      for (int c = 0; c < numChunks; c++) {
+        edges.addAll(chunkEdges[c]);
+      }
+      return edges;
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * A ChunkReader parses byte ranges "first", first + stride,
+   * first + 2 * stride, ... of an edge list, each into its own EdgeBuffer
+   * in "edges".  If parsing a range fails, the reader stops and keeps what
+   * was thrown in "error" (with line numbers counted from the start of the
+   * file) and the range's number in "errorChunk".
+   */
+  private static class ChunkReader implements Runnable {
+    private FileChannel channel;
+    private long[] bounds;
+    private EdgeBuffer[] edges;
+    private int first;
+    private int stride;
+    Throwable error;
+    int errorChunk;
+
+    ChunkReader(FileChannel channel, long[] bounds, EdgeBuffer[] edges,
+                int first, int stride) {
+      this.channel = channel;
+      this.bounds = bounds;
+      this.edges = edges;
+      this.first = first;
+      this.stride = stride;
+    }
+
+    public void run() {
+      for (int c = first; c < edges.length; c += stride) {
+        edges[c] = new EdgeBuffer((int) ((bounds[c + 1] - bounds[c]) / 8));
+        try {
+          readRange(channel, bounds[c], bounds[c + 1], edges[c]);
+        } catch (LineException e) {
+          try {
+            long line = linesBefore(channel, bounds[c]) + e.line;
+            error = new IOException("line " + line + ": " + e.detail);
+          } catch (IOException e2) {
+            error = e2;
+          }
+        } catch (IOException e) {
+          error = new IOException("bytes " + bounds[c] + "-" + bounds[c + 1] +
+                                  ": " + e.getMessage());
+        } catch (Throwable e) {
+          error = e;
+        }
+        if (error != null) {
+          errorChunk = c;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * A LineException is a parse error on line "line" of the range being
+   * parsed, counted from one.
+   */
+  private static class LineException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    long line;
+    String detail;
+
+    LineException(long line, String detail) {
+      super("line " + line + ": " + detail);
+      this.line = line;
+      this.detail = detail;
+    }
+  }
+
+  /**
+   * linesBefore() returns the number of lines that end before position
+   * "pos", so that line k of a range starting at "pos" is line
+   * linesBefore(pos) + k of the file.  It reads the file up to "pos", so it
+   * is only used to report errors.
+   */
+  private static long linesBefore(FileChannel channel, long pos) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(BLOCK_BYTES);
+    long lines = 0;
+    long p = 0;
+    while (p < pos) {
+      buf.clear();
+      buf.limit((int) Math.min(buf.capacity(), pos - p));
+      int n = channel.read(buf, p);
+      if (n <= 0) {
+        break;
+      }
+      for (int i = 0; i < n; i++) {
+        if (buf.get(i) == '\n') {
+          lines++;
+        }
+      }
+      p += n;
+    }
+    return lines;
+  }
+
+  /**
+   * lineStart() returns the first position at or after "pos" where a line
+   * starts, or the size of the file if there is none.
+   */
+  private static long lineStart(FileChannel channel, long pos) throws IOException {
+    if (pos == 0) {
+      return 0;
+    }
+    ByteBuffer buf = ByteBuffer.allocate(4096);
+    long p = pos - 1;
+    while (true) {
+      buf.clear();
+      int n = channel.read(buf, p);
+      if (n <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < n; i++) {
+        if (buf.get(i) == '\n') {
+          return p + i + 1;
+        }
+      }
+      p += n;
+    }
+  }
+
+  /**
+   * readRange() parses bytes start...end - 1 of "channel", which must begin
+   * at a line start and end at a line boundary or at the end of the file,
+   * appending their edges to "edges".  It uses positional reads, so several
+   * threads may read one channel at once.
+   */
+  private static void readRange(FileChannel channel, long start, long end,
+                                EdgeBuffer edges) throws IOException {
+    byte[] block = new byte[BLOCK_BYTES];
+    ByteBuffer buf = ByteBuffer.wrap(block);
+    long line = 1;
+    long pos = start;
+    boolean eof = false;
+    while (!eof) {
+      buf.limit((int) Math.min(block.length, buf.position() + (end - pos)));
+      int n = channel.read(buf, pos);
+      if (n > 0) {
+        pos += n;
+      }
+      eof = n < 0 || pos >= end;
+      int limit = buf.position();
+      // Parse only complete lines, and carry the partial last line over
+      // to the next block.  At the end of the range the last line needs
+      // no newline.
+      int stop = limit;
+      if (!eof) {
+        while (stop > 0 && block[stop - 1] != '\n') {
+          stop--;
+        }
+        if (stop == 0 && limit == block.length) {
+          throw new LineException(line, "too long");
+        }
+      }
+      line = parse(block, 0, stop, edges, line);
+      System.arraycopy(block, stop, block, 0, limit - stop);
+      buf.limit(block.length);
+      buf.position(limit - stop);
+    }
+  }
+
+  /**
+   * loadGraph() reads the edge list "file" into a new WUGraph whose vertices
+   * are Integers.  If "unique" is true, the file must not list any edge
+   * twice (in either direction), and the duplicate check is skipped.
+   * See WUGraph.addEdges().
+   */
+  public static WUGraph loadGraph(File file, boolean unique) throws IOException {
+    WUGraph g = new WUGraph();
+    g.addEdges(read(file), unique);
+    return g;
+  }
+
+  /**
+   * parse() parses the lines in bytes start...end - 1 of "b", which must
+   * end at a line boundary, appends their edges to "edges", and returns the
+   * number of the line after the last one parsed.  "line" is the number of
+   * the first line, used in error messages.
+   */
+  static long parse(byte[] b, int start, int end, EdgeBuffer edges, long line)
+      throws IOException {
+    int i = start;
+    int[] fields = new int[3];
+    while (i < end) {
+      byte c = b[i];
+      if (c == '\n') {
+        line++;
+        i++;
+        continue;
+      }
+      if (c == ' ' || c == '\t' || c == '\r') {
+        i++;
+        continue;
+      }
+      if (c == '#' || c == '%') {
+        while (i < end && b[i] != '\n') {
+          i++;
+        }
+        continue;
+      }
+      for (int f = 0; f < 3; f++) {
+        while (i < end && (b[i] == ' ' || b[i] == '\t')) {
+          i++;
+        }
+        boolean negative = false;
+        if (i < end && b[i] == '-' && f == 2) {
+          negative = true;
+          i++;
+        }
+        if (i == end || b[i] < '0' || b[i] > '9') {
+          throw new LineException(line, "expected \"u v w\"");
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        while (i < end && b[i] >= '0' && b[i] <= '9') {
+          value = 10 * value + (b[i] - '0');
+          if (value > limit) {
+            throw new LineException(line, (f == 2 ? "weight" : "vertex") +
+                                    " out of int range");
+          }
+          i++;
+        }
+        fields[f] = (int) (negative ? -value : value);
+      }
+      while (i < end && (b[i] == ' ' || b[i] == '\t' || b[i] == '\r')) {
+        i++;
+      }
+      if (i < end && b[i] != '\n') {
+        throw new LineException(line, "expected \"u v w\"");
+      }
+      edges.add(fields[0], fields[1], fields[2]);
+    }
+    return line;
+  }
+
+}
@@ -0,0 +1,241 @@
+/* GraphFile.java */
+
+package graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GraphFile class reads and writes IntGraphs in a compact binary format
+ * that can be memory-mapped and used in place as a CSRGraph, so loading a
+ * graph costs a few system calls and no per-edge work or Java objects.
+ *
+ * A graph file is, with all numbers little-endian:
+ *
+ *   header (64 bytes):  magic "WUGF", version, vertex count n, edge count,
+ *                       CSR entry count k (long), then zero padding;
+ *   offsets:            n + 1 longs;
+ *   targets:            k ints, padded with zeroes to a multiple of 8 bytes;
+ *   weights:            k ints, likewise padded.
+ *
+ * These are exactly the three arrays of a CSRGraph.  Every section starts
+ * at a multiple of 8 bytes from the start of the graph, so a graph may also
+ * be embedded in a larger file (see graphalg.Checkpoint).
+ */
+
+public class GraphFile {
+
+    static final int MAGIC = 0x46475557;    // "WUGF" read little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+    * write() writes g to "file", replacing its contents.
+    */
+    public static void write(IntGraph g, File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            write(g, channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+    * write() writes g to "channel", starting at the channel's position and
+    * leaving the position just past the graph.
+    *
+    * Running time:  O(|V| + |E|).
+    */
+    public static void write(IntGraph g, FileChannel channel) throws IOException {
+        int n = g.vertexCount();
+        long entries = 0;
+        for (int v = 0; v < n; v++) {
+            entries += g.degree(v);
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC);
+        buf.putInt(VERSION);
+        buf.putInt(n);
+        buf.putInt(g.edgeCount());
+        buf.putLong(entries);
+        while (buf.position() < HEADER_BYTES) {
+            buf.put((byte) 0);
+        }
+
+        long offset = 0;
+        buf.putLong(offset);
+        for (int v = 0; v < n; v++) {
+            offset += g.degree(v);
+            buf = flushIfFull(buf, channel, 8);
+            buf.putLong(offset);
+        }
+        int[] neighborList = new int[16];
+        int[] weightList = new int[16];
+        for (int section = 0; section < 2; section++) {
+            for (int v = 0; v < n; v++) {
+                int deg = g.degree(v);
+                if (deg > neighborList.length) {
+                    neighborList = new int[Math.max(deg, 2 * neighborList.length)];
+                    weightList = new int[neighborList.length];
+                }
+                g.copyNeighbors(v, neighborList, weightList);
+                int[] values = section == 0 ? neighborList : weightList;
+                for (int i = 0; i < deg; i++) {
+                    buf = flushIfFull(buf, channel, 4);
+                    buf.putInt(values[i]);
+                }
+            }
+            if (entries % 2 != 0) {
+                buf = flushIfFull(buf, channel, 4);
+                buf.putInt(0);
+            }
+        }
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+    * flushIfFull() writes out "buf" if it has less than "needed" bytes free,
+    * and returns it ready for more puts.
+    */
+    private static ByteBuffer flushIfFull(ByteBuffer buf, FileChannel channel,
+                                          int needed) throws IOException {
+        if (buf.remaining() < needed) {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+        return buf;
+    }
+
+    /**
+    * map() memory-maps the graph file "file" read-only and returns it as a
+    * CSRGraph.  Nothing is read until the graph is used; pages are then
+    * loaded by the operating system on demand and shared with its page
+    * cache.
+    * @throws IOException if the file cannot be read, or its header is not
+    * that of a graph file as long as the file.
+    */
+    public static CSRGraph map(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            //a mapping stays valid after its channel is closed
+            return map(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+    * map() memory-maps the graph starting at the position of "channel" and
+    * returns it as a CSRGraph, leaving the position just past the graph.
+    */
+    public static CSRGraph map(FileChannel channel) throws IOException {
+        return load(channel, true);
+    }
+
+    /**
+    * read() reads the graph starting at the position of "channel" into
+    * direct buffers with sequential reads, and returns it as a CSRGraph,
+    * leaving the position just past the graph.  Unlike map(), the result
+    * does not depend on the file afterward.
+    * @throws IOException if the channel cannot be read, or the graph's
+    * header does not match the bytes that follow it.
+    */
+    public static CSRGraph read(FileChannel channel) throws IOException {
+        return load(channel, false);
+    }
+
+    private static CSRGraph load(FileChannel channel, boolean mapped) throws IOException {
+        long start = channel.position();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not a graph file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported graph file version " + version);
+        }
+        int n = header.getInt();
+        int numEdges = header.getInt();
+        long entries = header.getLong();
+        // Each edge is stored in both directions, except a self-edge.
+        if (n < 0 || numEdges < 0 || entries < numEdges ||
+            entries > 2L * numEdges) {
+            throw new IOException("graph file header has " + n +
+                                  " vertices, " + numEdges + " edges and " +
+                                  entries + " entries");
+        }
+        long intSectionBytes = 4 * (entries + entries % 2);
+        long end = start + HEADER_BYTES + 8L * (n + 1L) + 2 * intSectionBytes;
+        if (channel.size() < end) {
+            throw new IOException("graph file is truncated: " + channel.size() +
+                                  " bytes, not " + end);
+        }
+
+        long pos = start + HEADER_BYTES;
+        BufferArray offsets = section(channel, pos, n + 1L, 3, mapped);
+        if (offsets.getLong(0) != 0 || offsets.getLong(n) != entries) {
+            throw new IOException("graph file offsets run from " +
+                                  offsets.getLong(0) + " to " +
+                                  offsets.getLong(n) + ", not 0 to " + entries);
+        }
+        pos += 8L * (n + 1L);
+        BufferArray targets = section(channel, pos, entries, 2, mapped);
+        pos += intSectionBytes;
+        BufferArray weights = section(channel, pos, entries, 2, mapped);
+        pos += intSectionBytes;
+        channel.position(pos);
+        return new CSRGraph(n, numEdges, offsets, targets, weights);
+    }
+
+    /**
+    * section() maps or reads the "length" elements of 2^elementShift bytes
+    * each that start at "pos", one chunk of BufferArray.CHUNK_BYTES at a
+    * time.
+    */
+    static BufferArray section(FileChannel channel, long pos, long length,
+                                       int elementShift, boolean mapped) throws IOException {
+        if (!mapped) {
+            BufferArray array = BufferArray.allocateDirect(length, elementShift);
+            channel.position(pos);
+            ByteBuffer[] chunks = array.chunks();
+            for (int i = 0; i < chunks.length; i++) {
+                readFully(channel, chunks[i]);
+                chunks[i].clear();
+            }
+            return array;
+        }
+        long bytes = length << elementShift;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + BufferArray.CHUNK_BYTES - 1) >>> BufferArray.CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long chunkStart = (long) i << BufferArray.CHUNK_SHIFT;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, pos + chunkStart,
+                                    Math.min(BufferArray.CHUNK_BYTES, bytes - chunkStart));
+        }
+        return new BufferArray(chunks, length, elementShift);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                throw new IOException("graph file is truncated");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+/* GraphMutationEvent.java */
+
+package graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A GraphMutationEvent is the Flight Recorder event for one change to a
+ * WUGraph:  addVertex(), removeVertex(), addEdge(), addEdges(),
+ * removeEdge(), or applyBatch().  By default only changes that take at
+ * least 1 ms are recorded (a recording's settings may lower the threshold
+ * to 0 to record them all), so that a recording shows the slow changes,
+ * such as those that resize a hash table or remove a high-degree vertex.
+ * When the event is not enabled, begin() and shouldCommit() cost next to
+ * nothing.
+ */
+
+@Name("graph.WUGraphMutation")
+@Label("WUGraph Mutation")
+@Category({"Graph", "WUGraph"})
+@Description("A change to a WUGraph that took at least the threshold time")
+@Threshold("1 ms")
+@StackTrace(true)
+class GraphMutationEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Edges Affected")
+  @Description("Edges added, removed, or reweighted by the change")
+  int affected;
+
+  @Label("Vertices After")
+  int vertexCount;
+
+  @Label("Edges After")
+  int edgeCount;
+
+}
@@ -0,0 +1,235 @@
+/* GraphSnapshot.java */
+
+package graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The GraphSnapshot class writes compressed snapshots of graphs and maps
+ * them back as CompressedGraphs.  Each vertex's adjacency list is sorted
+ * by neighbor and stored as
+ *
+ *   degree, then for each neighbor:  gap, zigzag(weight)
+ *
+ * all as varints (7 bits per byte, low bits first, high bit set on every
+ * byte but the last).  The first gap is zigzag(neighbor - vertex); later
+ * gaps are the (positive) differences between consecutive neighbors.
+ * zigzag() maps small negative and positive ints to small unsigned ones.
+ *
+ * A snapshot file is, with all fixed-size numbers little-endian:
+ *
+ *   header (64 bytes):  magic "WUGS", version, vertex count n, edge count,
+ *                       data length d (long), then zero padding;
+ *   data:               d bytes of adjacency lists, vertex 0 first,
+ *                       padded with zeroes to a multiple of 8 bytes;
+ *   index:              n + 1 longs, the position of each vertex's list
+ *                       within the data, and d.
+ */
+
+public class GraphSnapshot {
+
+    static final int MAGIC = 0x53475557;    // "WUGS" read little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+    * write() writes a snapshot of g to "file", replacing its contents.
+    *
+    * Running time:  O(|V| + |E| log d), where d is the largest degree.
+    */
+    public static void write(IntGraph g, File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            int n = g.vertexCount();
+            long[] index = new long[n + 1];
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+            int[] neighborList = new int[16];
+            int[] weightList = new int[16];
+            long[] sorted = new long[16];
+            long pos = 0;
+            for (int v = 0; v < n; v++) {
+                index[v] = pos;
+                int deg = g.degree(v);
+                if (deg > neighborList.length) {
+                    neighborList = new int[Math.max(deg, 2 * neighborList.length)];
+                    weightList = new int[neighborList.length];
+                    sorted = new long[neighborList.length];
+                }
+                g.copyNeighbors(v, neighborList, weightList);
+                //neighbors are non-negative, so the packed longs sort by neighbor
+                for (int i = 0; i < deg; i++) {
+                    sorted[i] = ((long) neighborList[i] << 32) | (weightList[i] & 0xFFFFFFFFL);
+                }
+                Arrays.sort(sorted, 0, deg);
+                pos += putVarint(buf, channel, deg);
+                int prev = v;
+                for (int i = 0; i < deg; i++) {
+                    int target = (int) (sorted[i] >>> 32);
+                    int gap = i == 0 ? zigzag(target - v) : target - prev;
+                    pos += putVarint(buf, channel, gap);
+                    pos += putVarint(buf, channel, zigzag((int) sorted[i]));
+                    prev = target;
+                }
+            }
+            index[n] = pos;
+            while (pos % 8 != 0) {
+                flush(buf, channel, 1);
+                buf.put((byte) 0);
+                pos++;
+            }
+            for (int v = 0; v <= n; v++) {
+                flush(buf, channel, 8);
+                buf.putLong(index[v]);
+            }
+            flush(buf, channel, buf.capacity());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(n);
+            header.putInt(g.edgeCount());
+            header.putLong(index[n]);
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+    * write() writes a snapshot of g, whose vertices must all be
+    * non-negative Integers (as made by EdgeListLoader), to "file".  In the
+    * snapshot, vertex i is Integer.valueOf(i); ids missing from g become
+    * vertices of degree zero.
+    */
+    public static void write(WUGraph g, File file) throws IOException {
+        write(new IntegerVertexView(g), file);
+    }
+
+    /**
+    * map() memory-maps the snapshot "file" read-only and returns it as a
+    * CompressedGraph.  Nothing is decoded until a vertex's neighbors are
+    * asked for.
+    */
+    public static CompressedGraph map(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            GraphFile.readFully(channel, header);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("not a graph snapshot");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported graph snapshot version " + version);
+            }
+            int n = header.getInt();
+            int numEdges = header.getInt();
+            long dataBytes = header.getLong();
+            BufferArray data = GraphFile.section(channel, HEADER_BYTES, dataBytes, 0, true);
+            long indexPos = HEADER_BYTES + (dataBytes + 7) / 8 * 8;
+            BufferArray index = GraphFile.section(channel, indexPos, n + 1, 3, true);
+            return new CompressedGraph(n, numEdges, index, data);
+        } finally {
+            channel.close();
+        }
+    }
+
+    static int zigzag(int x) {
+        return (x << 1) ^ (x >> 31);
+    }
+
+    static int unzigzag(int x) {
+        return (x >>> 1) ^ -(x & 1);
+    }
+
+    /**
+    * putVarint() appends "x", read as unsigned, to "buf" as a varint and
+    * returns the number of bytes used.
+    */
+    private static int putVarint(ByteBuffer buf, FileChannel channel, int x)
+        throws IOException {
+        flush(buf, channel, 5);
+        int bytes = 1;
+        while ((x & ~0x7F) != 0) {
+            buf.put((byte) ((x & 0x7F) | 0x80));
+            x >>>= 7;
+            bytes++;
+        }
+        buf.put((byte) x);
+        return bytes;
+    }
+
+    /**
+    * flush() writes out "buf" if it has less than "needed" bytes free.
+    */
+    private static void flush(ByteBuffer buf, FileChannel channel, int needed)
+        throws IOException {
+        if (buf.remaining() < needed) {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+    }
+
+    /**
+    * An IntegerVertexView presents a WUGraph whose vertices are Integers as
+    * an IntGraph on 0...(largest vertex).
+    */
+    private static class IntegerVertexView implements IntGraph {
+        private WUGraph g;
+        private int n;
+
+        IntegerVertexView(WUGraph g) {
+            this.g = g;
+            Object[] vertices = g.getVertices();
+            for (int i = 0; i < vertices.length; i++) {
+                if (!(vertices[i] instanceof Integer) || ((Integer) vertices[i]).intValue() < 0) {
+                    throw new IllegalArgumentException("vertex " + vertices[i] +
+                                                       " is not a non-negative Integer");
+                }
+                n = Math.max(n, ((Integer) vertices[i]).intValue() + 1);
+            }
+        }
+
+        public int vertexCount() {
+            return n;
+        }
+
+        public int edgeCount() {
+            return g.edgeCount();
+        }
+
+        public int degree(int vertex) {
+            return g.degree(Integer.valueOf(vertex));
+        }
+
+        public int copyNeighbors(int vertex, int[] neighborList, int[] weightList) {
+            Neighbors neighbors = g.getNeighbors(Integer.valueOf(vertex));
+            if (neighbors == null) {
+                return 0;
+            }
+            for (int i = 0; i < neighbors.neighborList.length; i++) {
+                neighborList[i] = ((Integer) neighbors.neighborList[i]).intValue();
+                weightList[i] = neighbors.weightList[i];
+            }
+            return neighbors.neighborList.length;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+/* IntGraph.java */
+
+package graph;
+
+/**
+ * The IntGraph interface is a read-only view of a weighted, undirected graph
+ * whose vertices are the ints 0...vertexCount() - 1.  It is what algorithms
+ * such as graphalg.Kruskal need to read a graph without hashing vertex
+ * objects, whatever the graph's storage.
+ */
+
+public interface IntGraph {
+
+    /**
+    * vertexCount() returns the number of vertices in the graph.
+    */
+    public int vertexCount();
+
+    /**
+    * edgeCount() returns the total number of edges in the graph.  Each
+    * undirected edge, including a self-edge, is counted once.
+    */
+    public int edgeCount();
+
+    /**
+    * degree() returns the degree of "vertex".  Self-edges add only one to
+    * the degree of a vertex.
+    */
+    public int degree(int vertex);
+
+    /**
+    * copyNeighbors() copies the neighbors of "vertex" into neighborList and
+    * the weights of the corresponding edges into weightList, and returns
+    * the number copied, which is degree(vertex).  Both arrays must have
+    * room for degree(vertex) ints.  A self-edge appears once, with "vertex"
+    * as its own neighbor.
+    */
+    public int copyNeighbors(int vertex, int[] neighborList, int[] weightList);
+
+}
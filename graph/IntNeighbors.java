@@ -0,0 +1,16 @@
+/* IntNeighbors.java */
+
+package graph;
+
+/**
+ * The IntNeighbors class is the IntWUGraph counterpart of Neighbors: it
+ * allows IntWUGraph.getNeighbors() to return two arrays at once.
+ *
+ * Since this class is NOT an abstract data type, but is merely a collection of
+ * data, all fields are public.
+ */
+
+public class IntNeighbors {
+  public int[] neighborList;
+  public int[] weightList;
+}
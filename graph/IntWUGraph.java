@@ -0,0 +1,298 @@
+/* IntWUGraph.java */
+
+package graph;
+import dict.*;
+
+/**
+ * The IntWUGraph class represents a weighted, undirected graph whose
+ * vertices are the ints 0...n - 1, fixed when the graph is constructed.
+ * Self-edges are permitted.  It offers the edge operations of WUGraph, but
+ * a vertex lookup is an array index, and an edge lookup hashes a single
+ * packed long; no vertex is ever boxed or hashed.
+ *
+ * Edges are numbered internally.  Edge e joins ends[2e] and ends[2e + 1],
+ * has weight weights[e], and occupies slot slots[2e] of adj[ends[2e]] and
+ * slot slots[2e + 1] of adj[ends[2e + 1]].  Numbers of removed edges are
+ * reused.
+ */
+
+public class IntWUGraph implements IntGraph {
+
+    private int numVertices;
+    private int numEdges;
+    private int[][] adj;
+    private int[] degrees;
+    private int[] ends;
+    private int[] slots;
+    private int[] weights;
+    private int[] freeEdges;
+    private int numFree;
+    private int nextEdge;
+    private LongHashTable edgeIndex;
+    //"edgeIndex" maps VertexPair.packRanks(u, v) to the number of edge (u, v)
+
+    /**
+    * IntWUGraph() constructs a graph having vertices 0...numVertices - 1
+    * and no edges.
+    *
+    * Running time:  O(numVertices).
+    */
+    public IntWUGraph(int numVertices) {
+        this(numVertices, 16);
+    }
+
+    /**
+    * IntWUGraph() constructs a graph having vertices 0...numVertices - 1
+    * and no edges, with room for roughly edgeEstimate edges before any
+    * table has to grow.
+    *
+    * Running time:  O(numVertices + edgeEstimate).
+    */
+    public IntWUGraph(int numVertices, int edgeEstimate) {
+        this.numVertices = numVertices;
+        numEdges = 0;
+        adj = new int[numVertices][];
+        degrees = new int[numVertices];
+        edgeEstimate = Math.max(edgeEstimate, 1);
+        ends = new int[2 * edgeEstimate];
+        slots = new int[2 * edgeEstimate];
+        weights = new int[edgeEstimate];
+        freeEdges = new int[4];
+        edgeIndex = new LongHashTable(edgeEstimate);
+    }
+
+    /**
+    * vertexCount() returns the number of vertices in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int vertexCount() {
+        return numVertices;
+    }
+
+    /**
+    * edgeCount() returns the total number of edges in the graph.
+    *
+    * Running time:  O(1).
+    */
+    public int edgeCount() {
+        return numEdges;
+    }
+
+    /**
+    * isVertex() returns true if "vertex" is in 0...vertexCount() - 1.
+    *
+    * Running time:  O(1).
+    */
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < numVertices;
+    }
+
+    /**
+    * degree() returns the degree of a vertex.  Self-edges add only one to the
+    * degree of a vertex.  If the parameter "vertex" doesn't represent a vertex
+    * of the graph, zero is returned.
+    *
+    * Running time:  O(1).
+    */
+    public int degree(int vertex) {
+        if (!isVertex(vertex)) {
+            return 0;
+        }
+        return degrees[vertex];
+    }
+
+    /**
+    * getNeighbors() returns a new IntNeighbors object referencing two arrays.
+    * The neighborList array contains each vertex that is connected to the
+    * input vertex by an edge, and the weightList array contains the weights
+    * of the corresponding edges.  If the vertex has degree zero, or if the
+    * parameter "vertex" does not represent a vertex of the graph, null is
+    * returned (instead of an IntNeighbors object).
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+    public IntNeighbors getNeighbors(int vertex) {
+        int deg = degree(vertex);
+        if (deg == 0) {
+            return null;
+        }
+        IntNeighbors n = new IntNeighbors();
+        n.neighborList = new int[deg];
+        n.weightList = new int[deg];
+        copyNeighbors(vertex, n.neighborList, n.weightList);
+        return n;
+    }
+
+    /**
+    * copyNeighbors() copies the neighbors of "vertex" and the weights of the
+    * corresponding edges into the given arrays and returns the number
+    * copied.  See IntGraph.
+    *
+    * Running time:  O(d), where d is the degree of "vertex".
+    */
+    public int copyNeighbors(int vertex, int[] neighborList, int[] weightList) {
+        if (!isVertex(vertex)) {
+            return 0;
+        }
+        int deg = degrees[vertex];
+        int[] edges = adj[vertex];
+        for (int i = 0; i < deg; i++) {
+            int e = edges[i];
+            int other = ends[2 * e];
+            neighborList[i] = other == vertex ? ends[2 * e + 1] : other;
+            weightList[i] = weights[e];
+        }
+        return deg;
+    }
+
+    /**
+    * addEdge() adds an edge (u, v) to the graph.  If either of the parameters
+    * u and v does not represent a vertex of the graph, the graph is unchanged.
+    * The edge is assigned a weight of "weight".  If the graph already contains
+    * edge (u, v), the weight is updated to reflect the new value.  Self-edges
+    * (where u == v) are allowed.
+    *
+    * Running time:  O(1) amortized.
+    */
+    public void addEdge(int u, int v, int weight) {
+        if (!isVertex(u) || !isVertex(v)) {
+            return;
+        }
+        long key = VertexPair.packRanks(u, v);
+        int e = edgeIndex.find(key);
+        if (e >= 0) {
+            weights[e] = weight;
+            return;
+        }
+        e = newEdge();
+        ends[2 * e] = u;
+        ends[2 * e + 1] = v;
+        weights[e] = weight;
+        slots[2 * e] = attach(u, e);
+        if (u != v) {
+            slots[2 * e + 1] = attach(v, e);
+        } else {
+            //a self-edge occupies a single slot
+            slots[2 * e + 1] = slots[2 * e];
+        }
+        edgeIndex.insert(key, e);
+        numEdges++;
+    }
+
+    /**
+    * removeEdge() removes an edge (u, v) from the graph.  If either of the
+    * parameters u and v does not represent a vertex of the graph, or if
+    * (u, v) is not an edge of the graph, the graph is unchanged.
+    *
+    * Running time:  O(1).
+    */
+    public void removeEdge(int u, int v) {
+        if (!isVertex(u) || !isVertex(v)) {
+            return;
+        }
+        int e = edgeIndex.remove(VertexPair.packRanks(u, v));
+        if (e < 0) {
+            return;
+        }
+        detach(ends[2 * e], slots[2 * e]);
+        if (ends[2 * e] != ends[2 * e + 1]) {
+            detach(ends[2 * e + 1], slots[2 * e + 1]);
+        }
+        if (numFree == freeEdges.length) {
+            int[] grown = new int[2 * numFree];
+            System.arraycopy(freeEdges, 0, grown, 0, numFree);
+            freeEdges = grown;
+        }
+        freeEdges[numFree++] = e;
+        numEdges--;
+    }
+
+    /**
+    * isEdge() returns true if (u, v) is an edge of the graph.  Returns false
+    * if (u, v) is not an edge (including the case where either of the
+    * parameters u and v does not represent a vertex of the graph).
+    *
+    * Running time:  O(1).
+    */
+    public boolean isEdge(int u, int v) {
+        return edgeIndex.find(VertexPair.packRanks(u, v)) >= 0;
+    }
+
+    /**
+    * weight() returns the weight of (u, v).  Returns zero if (u, v) is not
+    * an edge (including the case where either of the parameters u and v does
+    * not represent a vertex of the graph).  See WUGraph.weight().
+    *
+    * Running time:  O(1).
+    */
+    public int weight(int u, int v) {
+        int e = edgeIndex.find(VertexPair.packRanks(u, v));
+        if (e < 0) {
+            return 0;
+        }
+        return weights[e];
+    }
+
+    /**
+    * newEdge() returns an unused edge number, reusing a removed one if
+    * possible, and grows the edge arrays if necessary.
+    */
+    private int newEdge() {
+        if (numFree > 0) {
+            return freeEdges[--numFree];
+        }
+        if (nextEdge == weights.length) {
+            int capacity = 2 * weights.length;
+            int[] grownEnds = new int[2 * capacity];
+            int[] grownSlots = new int[2 * capacity];
+            int[] grownWeights = new int[capacity];
+            System.arraycopy(ends, 0, grownEnds, 0, ends.length);
+            System.arraycopy(slots, 0, grownSlots, 0, slots.length);
+            System.arraycopy(weights, 0, grownWeights, 0, weights.length);
+            ends = grownEnds;
+            slots = grownSlots;
+            weights = grownWeights;
+        }
+        return nextEdge++;
+    }
+
+    /**
+    * attach() appends edge "e" to the adjacency array of "vertex", doubling
+    * the array when it is full, and returns the slot the edge now occupies.
+    */
+    private int attach(int vertex, int e) {
+        int[] edges = adj[vertex];
+        int deg = degrees[vertex];
+        if (edges == null || deg == edges.length) {
+            int[] grown = new int[Math.max(4, 2 * deg)];
+            if (edges != null) {
+                System.arraycopy(edges, 0, grown, 0, deg);
+            }
+            adj[vertex] = grown;
+            edges = grown;
+        }
+        edges[deg] = e;
+        degrees[vertex] = deg + 1;
+        return deg;
+    }
+
+    /**
+    * detach() removes the edge in slot "slot" of the adjacency array of
+    * "vertex" by moving the last edge into its place, and updates the moved
+    * edge's slot.
+    */
+    private void detach(int vertex, int slot) {
+        int[] edges = adj[vertex];
+        int last = --degrees[vertex];
+        int moved = edges[last];
+        edges[slot] = moved;
+        if (ends[2 * moved] == vertex) {
+            slots[2 * moved] = slot;
+        }
+        if (ends[2 * moved + 1] == vertex) {
+            slots[2 * moved + 1] = slot;
+        }
+    }
+
+}
@@ -1,27 +1,64 @@
-
-package graph;
-import list.*;
-
-/**
- * The VSentinel Class is used to link a vertex to a DList of edges.
- */
-
-class VSentinel {
-    protected Object vertex;
-    protected DList edges;
-
-
-    /**
-     * Creates a VSentinel that links a vertex to its edges.
-     * A reference to this VSentinel is kept by the DList
-     * "vertices" in WUGraph. Only for use by WUGraph.
-     */
-    protected VSentinel(Object vertex, DList edges) {
-        this.vertex = vertex;
-        this.edges = edges;
-    }
-
-
-
-
-}
+
+package graph;
+import list.*;
+
+/**
+ * The VSentinel Class is used to link a vertex to an array of its edges.
+ */
+
+class VSentinel {
+    protected Object vertex;
+    protected DListNode node;
+    protected Edge[] edges;
+    protected int degree;
+
+    private static final Edge[] NO_EDGES = new Edge[0];
+
+
+    /**
+     * Creates a VSentinel with no edges that links a vertex to its edges.
+     * A reference to this VSentinel is kept by the DList "vertices" in
+     * WUGraph (at DListNode "node") and by hashVertices. Only for use by
+     * WUGraph.
+     */
+    protected VSentinel(Object vertex) {
+        this.vertex = vertex;
+        this.edges = NO_EDGES;
+        this.degree = 0;
+    }
+
+    /**
+     * Appends "edge" to this vertex's edges, doubling the array when it is
+     * full, and returns the slot the edge now occupies.
+     */
+    protected int attach(Edge edge) {
+        if (degree == edges.length) {
+            Edge[] grown = new Edge[Math.max(4, 2 * degree)];
+            System.arraycopy(edges, 0, grown, 0, degree);
+            edges = grown;
+        }
+        edges[degree] = edge;
+        return degree++;
+    }
+
+    /**
+     * Removes the edge in slot "slot" by moving the last edge into its
+     * place, and updates the moved edge's slot.  Runs in O(1) time.
+     */
+    protected void detach(int slot) {
+        degree--;
+        Edge moved = edges[degree];
+        edges[slot] = moved;
+        edges[degree] = null;
+        if (moved.end1 == this) {
+            moved.slot1 = slot;
+        }
+        if (moved.end2 == this) {
+            moved.slot2 = slot;
+        }
+    }
+
+
+
+
+}
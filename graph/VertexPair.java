@@ -13,41 +13,91 @@ package graph;
 class VertexPair {
   protected Object object1;
   protected Object object2;
+  // key packs the two vertices' hashCodes (or int values, if both vertices
+  // are Integers) smaller first, so it does not depend on the pair's order.
+  private long key;
+  private boolean packed;
+  private int hash;
 
   protected VertexPair(Object o1, Object o2) {
+    set(o1, o2);
+  }
+
+  /**
+   * set() makes this VertexPair represent the pair (o1, o2) instead, so that
+   * one VertexPair can serve for a run of lookups.  A VertexPair that is a
+   * key in a hash table must not be changed.
+   */
+  void set(Object o1, Object o2) {
     object1 = o1;
     object2 = o2;
+    if (o1 instanceof Integer && o2 instanceof Integer) {
+      packed = true;
+      key = packRanks(((Integer) o1).intValue(), ((Integer) o2).intValue());
+    } else {
+      packed = false;
+      key = packRanks(o1.hashCode(), o2.hashCode());
+    }
+    hash = mix(key);
   }
 
   /**
-   * hashCode() returns a hashCode equal to the sum of the hashCodes of each
-   * of the two objects of the pair, so that the order of the objects will
-   * not affect the hashCode.  Self-edges are treated differently:  we don't
-   * add an object's hashCode to itself, since the result would always be even.
-   * We add one to the hashCode so that a self-edge will not collide with the
-   * object itself if vertices and edges are stored in the same hash table.
+   * packRanks() packs the unordered pair of ints (r1, r2) into a long, with
+   * the smaller int in the high 32 bits and the larger in the low 32 bits.
+   * packRanks(r1, r2) == packRanks(r2, r1), and distinct unordered pairs
+   * always give distinct longs, so the result can serve as an edge key when
+   * both endpoints are numbered by ints.
    */
-  public int hashCode() {
-    if (object1.equals(object2)) {
-      return object1.hashCode() + 1;
-    } else {
-      return object1.hashCode() + object2.hashCode();
+  static long packRanks(int r1, int r2) {
+    if (r1 > r2) {
+      int temp = r1;
+      r1 = r2;
+      r2 = temp;
     }
+    return ((long) r1 << 32) | (r2 & 0xFFFFFFFFL);
+  }
+
+  /**
+   * mix() scrambles all 64 bits of "k" into an int hash code, so that pairs
+   * whose endpoints differ only slightly (or have the same sum) spread over
+   * the whole table.  This is the finalizer of MurmurHash3.
+   */
+  static int mix(long k) {
+    k ^= k >>> 33;
+    k *= 0xFF51AFD7ED558CCDL;
+    k ^= k >>> 33;
+    k *= 0xC4CEB9FE1A85EC53L;
+    k ^= k >>> 33;
+    return (int) k;
+  }
+
+  /**
+   * hashCode() returns a hashCode that mixes the smaller and the larger of
+   * the two objects' hashCodes, so that the order of the objects will not
+   * affect the hashCode.  It is computed once, when the pair is created.
+   */
+  public int hashCode() {
+    return hash;
   }
 
   /**
    * equals() returns true if this VertexPair represents the same unordered
    * pair of objects as the parameter "o".  The order of the pair does not
    * affect the equality test, so (u, v) is found to be equal to (v, u).
+   * Pairs of Integers are compared by their packed keys alone.
    */
   public boolean equals(Object o) {
-    if (o instanceof VertexPair) {
-      return ((object1.equals(((VertexPair) o).object1)) &&
-              (object2.equals(((VertexPair) o).object2))) ||
-             ((object1.equals(((VertexPair) o).object2)) &&
-              (object2.equals(((VertexPair) o).object1)));
-    } else {
+    if (!(o instanceof VertexPair)) {
       return false;
     }
+    VertexPair p = (VertexPair) o;
+    if (hash != p.hash || key != p.key) {
+      return false;
+    }
+    if (packed && p.packed) {
+      return true;
+    }
+    return ((object1.equals(p.object1)) && (object2.equals(p.object2))) ||
+           ((object1.equals(p.object2)) && (object2.equals(p.object1)));
   }
 }
@@ -0,0 +1,110 @@
+/* VertexPairTest.java */
+
+package graph;
+
+import java.util.Random;
+
+/**
+ * The VertexPairTest class checks that a VertexPair ignores the order of its
+ * vertices, that its cached hash code is the one a fresh computation gives
+ * (also after set() reuses the pair), that packRanks() is symmetric and
+ * one-to-one, and that pairs whose vertices' hash codes collide are still
+ * told apart.  It lives in package graph because VertexPair does; run it as
+ * "java graph.VertexPairTest".
+ */
+
+class VertexPairTest {
+
+  private static boolean ok = true;
+
+  private static void check(String what, boolean condition) {
+    if (!condition && ok) {
+      System.out.println(what + ".");
+      ok = false;
+    }
+  }
+
+  /**
+   * checkPair() checks (u, v) against (v, u), against a fresh computation of
+   * its hash code, and against "reused" after reused.set(u, v).
+   */
+  private static void checkPair(Object u, Object v, VertexPair reused) {
+    VertexPair p = new VertexPair(u, v);
+    VertexPair q = new VertexPair(v, u);
+    String name = "(" + u + ", " + v + ")";
+    check(name + " does not equal its reverse", p.equals(q) && q.equals(p));
+    check(name + " and its reverse hash differently",
+          p.hashCode() == q.hashCode());
+    long key;
+    if (u instanceof Integer && v instanceof Integer) {
+      key = VertexPair.packRanks(((Integer) u).intValue(),
+                                 ((Integer) v).intValue());
+    } else {
+      key = VertexPair.packRanks(u.hashCode(), v.hashCode());
+    }
+    check(name + " caches hash " + p.hashCode() + ", not " +
+          VertexPair.mix(key), p.hashCode() == VertexPair.mix(key));
+    reused.set(u, v);
+    check(name + " reused by set() differs from a new pair",
+          reused.equals(p) && reused.hashCode() == p.hashCode());
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(27);
+    System.out.println("Running VertexPair test.");
+
+    VertexPair reused = new VertexPair("x", "y");
+    int[] extremes = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1};
+    for (int i = 0; i < extremes.length; i++) {
+      for (int j = 0; j < extremes.length; j++) {
+        checkPair(Integer.valueOf(extremes[i]), Integer.valueOf(extremes[j]),
+                  reused);
+      }
+    }
+    for (int trial = 0; trial < 1000; trial++) {
+      int a = random.nextInt();
+      int b = random.nextInt(4) == 0 ? a : random.nextInt();
+      checkPair(Integer.valueOf(a), Integer.valueOf(b), reused);
+      checkPair("s" + a, "s" + b, reused);
+      checkPair(Integer.valueOf(a), "s" + b, reused);
+    }
+
+    // packRanks() is symmetric and one-to-one.
+    for (int trial = 0; trial < 1000; trial++) {
+      int a = trial < 25 ? extremes[trial / 5] : random.nextInt();
+      int b = trial < 25 ? extremes[trial % 5] : random.nextInt();
+      long key = VertexPair.packRanks(a, b);
+      check("packRanks(" + a + ", " + b + ") is not symmetric",
+            key == VertexPair.packRanks(b, a));
+      check("packRanks(" + a + ", " + b + ") does not unpack",
+            (int) (key >> 32) == Math.min(a, b) &&
+            (int) key == Math.max(a, b));
+    }
+
+    // Equal Integers that are different objects (being outside the Integer
+    // cache) make equal pairs.
+    Integer big1 = Integer.valueOf(100000);
+    Integer big2 = Integer.valueOf(100000);
+    check("Pairs of equal but distinct Integers differ",
+          new VertexPair(big1, Integer.valueOf(7))
+          .equals(new VertexPair(Integer.valueOf(7), big2)));
+
+    // "Aa" and "BB" have the same hashCode(), so these pairs share a key
+    // and a hash code, but are different pairs.
+    VertexPair aa = new VertexPair("Aa", "z");
+    VertexPair bb = new VertexPair("z", "BB");
+    check("(Aa, z) and (z, BB) do not share a hash code",
+          aa.hashCode() == bb.hashCode());
+    check("(Aa, z) equals (z, BB)", !aa.equals(bb) && !bb.equals(aa));
+    check("(1, 2) equals (1, 3)", !new VertexPair(Integer.valueOf(1),
+          Integer.valueOf(2)).equals(new VertexPair(Integer.valueOf(1),
+          Integer.valueOf(3))));
+    check("A VertexPair equals a String", !aa.equals("Aa"));
+
+    if (ok) {
+      System.out.println("VertexPair test passed.");
+    } else {
+      System.out.println("VertexPair test FAILED.");
+    }
+  }
+}
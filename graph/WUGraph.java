@@ -16,8 +16,10 @@ public class WUGraph {
     private DList vertices;
     private HashTableChained hashVertices;
     private HashTableChained hashEdges;
-    //"edges" is a hashtable with Entries: key = vertex, value = DList of adjacent edges
-    //value = DList is to ensure that even with collision, our code works
+    private long version;
+    //"hashVertices" maps each vertex to its VSentinel, which holds the
+    //vertex's adjacency array; "hashEdges" maps each VertexPair to the
+    //single Edge shared by both endpoints' adjacency arrays
 
     /**
     * WUGraph() constructs a graph having no vertices or edges.
@@ -50,11 +52,26 @@ public class WUGraph {
         return numEdges;
     }
 
+    /**
+    * version() returns the graph's modification count.  It starts at zero
+    * and goes up by at least one with every call that changes the graph
+    * (adding or removing a vertex, adding, reweighting, or removing an edge),
+    * and never goes down.  Calls that leave the graph unchanged leave it
+    * unchanged, so a cached result computed at version k is still good while
+    * version() returns k.
+    *
+    * Running time:  O(1).
+    */
+    public long version() {
+        return version;
+    }
+
     /**
     * getVertices() returns an array containing all the objects that serve
     * as vertices of the graph.  The array's length is exactly equal to the
     * number of vertices.  If the graph has no vertices, the array has length
-    * zero.
+    * zero.  The vertices are in the order they were added; removing one does
+    * not change the order of the rest.
     *
     * (NOTE:  Do not return any internal data structure you use to represent
     * vertices!  Return only the same objects that were provided by the
@@ -83,15 +100,18 @@ public class WUGraph {
     * Running time:  O(1).
     */
     public void addVertex(Object vertex) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
         if (isVertex(vertex)) {
             return;
         }
-        vertices.insertBack(new VSentinel(vertex, new DList()));
-        //Creates a new DListNode in vertices pointing to a VSentinel
-        //with an empty DList for the VSentinel.edges
-        DListNode vertexNode = vertices.back();
-        hashVertices.insert(vertex, vertexNode);
+        VSentinel sentinel = new VSentinel(vertex);
+        vertices.insertBack(sentinel);
+        sentinel.node = vertices.back();
+        hashVertices.insert(vertex, sentinel);
         numVertices++;
+        version++;
+        commit(event, "addVertex", 0);
     }
 
     /**
@@ -102,25 +122,27 @@ public class WUGraph {
     * Running time:  O(d), where d is the degree of "vertex".
     */
     public void removeVertex(Object vertex) {
-        if (!isVertex(vertex)) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
+        Entry entry = hashVertices.find(vertex);
+        if (entry == null) {
             return;
         }
-        DListNode vertexNode = (DListNode)hashVertices.find(vertex).value();
-        DList vertexVSentinelEdges = ((VSentinel)vertexNode.item).edges;
-        DListNode currEdgeNode = vertexVSentinelEdges.front();
-        while (currEdgeNode != null) {
-            Edge currEdge = (Edge)currEdgeNode.item;
-            Object otherVertex = currEdge.otherVertex;
-            DListNode otherNode = currEdge.otherDListNode;
-            ((VSentinel)((DListNode)hashVertices.find(otherVertex).value()).item).edges.remove(otherNode);
-            VertexPair vp = new VertexPair(vertex, otherVertex);
-            hashEdges.remove(vp);
+        VSentinel sentinel = (VSentinel)entry.value();
+        for (int i = 0; i < sentinel.degree; i++) {
+            Edge currEdge = sentinel.edges[i];
+            VSentinel other = currEdge.other(sentinel);
+            if (other != sentinel) {
+                other.detach(currEdge.end1 == other ? currEdge.slot1 : currEdge.slot2);
+            }
+            hashEdges.remove(new VertexPair(vertex, other.vertex));
             numEdges--;
-            currEdgeNode = vertexVSentinelEdges.next(currEdgeNode);
         }
-        vertices.remove(vertexNode);
+        vertices.remove(sentinel.node);
         hashVertices.remove(vertex);
         numVertices--;
+        version++;
+        commit(event, "removeVertex", sentinel.degree);
     }
 
     /**
@@ -144,10 +166,11 @@ public class WUGraph {
     * Running time:  O(1).
     */
     public int degree(Object vertex) {
-        if (isVertex(vertex)) {
-            return ((VSentinel)((DListNode)hashVertices.find(vertex).value()).item).edges.length();
+        Entry entry = hashVertices.find(vertex);
+        if (entry == null) {
+            return 0;
         }
-        return 0;
+        return ((VSentinel)entry.value()).degree;
     }
 
     /**
@@ -169,23 +192,18 @@ public class WUGraph {
     * Running time:  O(d), where d is the degree of "vertex".
     */
     public Neighbors getNeighbors(Object vertex) {
-        int deg = degree(vertex);
-        if (deg == 0 || !isVertex(vertex)) {
+        Entry entry = hashVertices.find(vertex);
+        if (entry == null || ((VSentinel)entry.value()).degree == 0) {
             return null;
         }
+        VSentinel sentinel = (VSentinel)entry.value();
+        int deg = sentinel.degree;
         Object[] neighborList = new Object[deg];
         int[] weightList = new int[deg];
-        DList neighbors = ((VSentinel)((DListNode)hashVertices.find(vertex).value()).item).edges;
-        DListNode currNeighbor = neighbors.front();
-        int index = 0;
-        while (currNeighbor != null) {
-            Edge edge = (Edge)currNeighbor.item;
-            Object otherV = edge.otherVertex;
-            neighborList[index] = otherV;
-            VertexPair vp = new VertexPair(vertex, otherV);
-            weightList[index] = ((Edge)hashEdges.find(vp).value()).weight;
-            index++;
-            currNeighbor = neighbors.next(currNeighbor);
+        for (int i = 0; i < deg; i++) {
+            Edge edge = sentinel.edges[i];
+            neighborList[i] = edge.other(sentinel).vertex;
+            weightList[i] = edge.weight;
         }
         Neighbors n = new Neighbors();
         n.neighborList = neighborList;
@@ -197,42 +215,105 @@ public class WUGraph {
     * addEdge() adds an edge (u, v) to the graph.  If either of the parameters
     * u and v does not represent a vertex of the graph, the graph is unchanged.
     * The edge is assigned a weight of "weight".  If the graph already contains
-    * edge (u, v), the weight is updated to reflect the new value in only the
-    * hashEdges field. Weights are only trusted from hashEdges.  Self-edges
+    * edge (u, v), the weight is updated to reflect the new value.  Self-edges
     * (where u == v) are allowed.
     *
     * Running time:  O(1).
     */
     public void addEdge(Object u, Object v, int weight) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
         VertexPair vp = new VertexPair(u, v);
-        if (isEdge(u, v)) {
-            //if updating the weight of an edge, only update hashEdges
-            //thus, hashEdges is the most up-to-date, do not trust
-            //weights from Edge objects not referenced by hashEdges
-            ((Edge) hashEdges.find(vp).value()).weight = weight;
+        Entry existing = hashEdges.find(vp);
+        if (existing != null) {
+            ((Edge) existing.value()).weight = weight;
+            version++;
+            commit(event, "addEdge", 1);
             return;
         }
-        DList uEdges = ((VSentinel) ((DListNode) hashVertices.find(u).value()).item).edges;
-        Edge uEdge = new Edge(u, v, null, null, weight);
-        uEdges.insertBack(uEdge);
-        DListNode uNode = uEdges.back();
-        if (!u.equals(v)) {
-            DList vEdges = ((VSentinel) ((DListNode) hashVertices.find(v).value()).item).edges;
-            Edge vEdge = new Edge(v, u, null, null, weight);
-            vEdges.insertBack(vEdge);
-            DListNode vNode = vEdges.back();
-            vEdge.thisDListNode = vNode;
-            vEdge.otherDListNode = uNode;
-            uEdge.thisDListNode = uNode;
-            uEdge.otherDListNode = vNode;
-        } else {
-            uEdge.thisDListNode = uNode;
-            uEdge.otherDListNode = uNode;
+        Entry uEntry = hashVertices.find(u);
+        Entry vEntry = hashVertices.find(v);
+        if (uEntry == null || vEntry == null) {
+            return;
         }
+        insertEdge(vp, (VSentinel) uEntry.value(), (VSentinel) vEntry.value(), weight);
+        commit(event, "addEdge", 1);
+    }
 
-        hashEdges.insert(vp, uEdge);
-        //hashEdges only has one copy of this edge, NOT two
+    /**
+    * insertEdge() creates the edge "vp" between two existing vertices, which
+    * must not already be joined, and attaches it to both adjacency arrays.
+    */
+    private void insertEdge(VertexPair vp, VSentinel uSentinel, VSentinel vSentinel, int weight) {
+        Edge edge = new Edge(uSentinel, vSentinel, weight);
+        edge.slot1 = uSentinel.attach(edge);
+        if (vSentinel != uSentinel) {
+            edge.slot2 = vSentinel.attach(edge);
+        } else {
+            //a self-edge occupies a single slot
+            edge.slot2 = edge.slot1;
+        }
+        hashEdges.insert(vp, edge);
         numEdges++;
+        version++;
+    }
+
+    /**
+    * addEdges() adds every edge of "edges" to the graph, as if by calling
+    * addEdge() for each, but first adds each vertex named in "edges" that
+    * is not yet in the graph.  Vertex i of the buffer is the vertex
+    * Integer.valueOf(i).  The hash tables are grown once, up front, and each
+    * vertex's sentinel is looked up only once.  If "unique" is true, the
+    * caller promises that no edge in "edges" is already in the graph or is
+    * listed twice (in either direction), and the per-edge duplicate check is
+    * skipped; if the promise is broken, the graph is corrupted.
+    *
+    * Running time:  O(|V| + e), where e is the number of edges in "edges"
+    * and |V| counts the vertices named in them.
+    */
+    public void addEdges(EdgeBuffer edges, boolean unique) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
+        int count = edges.size();
+        int[] ends1 = edges.ends1();
+        int[] ends2 = edges.ends2();
+        int[] weights = edges.weights();
+        VSentinel[] sentinels = new VSentinel[edges.maxVertex() + 1];
+        boolean[] named = new boolean[sentinels.length];
+        int newVertices = 0;
+        for (int i = 0; i < count; i++) {
+            named[ends1[i]] = true;
+            named[ends2[i]] = true;
+        }
+        for (int i = 0; i < named.length; i++) {
+            if (named[i]) {
+                newVertices++;
+            }
+        }
+        hashVertices.reserve(numVertices + newVertices);
+        hashEdges.reserve(numEdges + count);
+        for (int i = 0; i < named.length; i++) {
+            if (named[i]) {
+                Integer vertex = Integer.valueOf(i);
+                addVertex(vertex);
+                sentinels[i] = (VSentinel) hashVertices.find(vertex).value();
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            VSentinel uSentinel = sentinels[ends1[i]];
+            VSentinel vSentinel = sentinels[ends2[i]];
+            VertexPair vp = new VertexPair(uSentinel.vertex, vSentinel.vertex);
+            if (!unique) {
+                Entry existing = hashEdges.find(vp);
+                if (existing != null) {
+                    ((Edge) existing.value()).weight = weights[i];
+                    version++;
+                    continue;
+                }
+            }
+            insertEdge(vp, uSentinel, vSentinel, weights[i]);
+        }
+        commit(event, "addEdges", count);
     }
 
     /**
@@ -244,19 +325,136 @@ public class WUGraph {
     * Running time:  O(1).
     */
     public void removeEdge(Object u, Object v) {
-        if (!isVertex(u) || !isVertex(v) || !isEdge(u, v)) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
+        Entry entry = hashEdges.remove(new VertexPair(u, v));
+        if (entry == null) {
             return;
         }
-        VertexPair vp = new VertexPair(u, v);
-        Edge edge = (Edge)hashEdges.find(vp).value();
-        if (!u.equals(v)) {
-            DList otherEdges = ((VSentinel)((DListNode)hashVertices.find(edge.otherVertex).value()).item).edges;
-            otherEdges.remove(edge.otherDListNode);
+        detachEdge((Edge)entry.value());
+        commit(event, "removeEdge", 1);
+    }
+
+    /**
+    * detachEdge() takes "edge", already removed from hashEdges, out of both
+    * of its endpoints' adjacency arrays.
+    */
+    private void detachEdge(Edge edge) {
+        edge.end1.detach(edge.slot1);
+        if (edge.end2 != edge.end1) {
+            edge.end2.detach(edge.slot2);
         }
-        DList thisEdges = ((VSentinel)((DListNode)hashVertices.find(edge.thisVertex).value()).item).edges;
-        thisEdges.remove(edge.thisDListNode);
-        hashEdges.remove(vp);
         numEdges--;
+        version++;
+    }
+
+    /**
+    * applyBatch() applies the changes in "batch" in order, as if by calling
+    * addEdge() or removeEdge() for each, and returns the number of changes
+    * that changed the graph.  Vertex i of the batch is the vertex
+    * Integer.valueOf(i); a change naming a vertex that is not in the graph
+    * leaves the graph unchanged.
+    *
+    * Each distinct vertex's sentinel is looked up in the graph at most once
+    * per batch, and only if an edge is actually inserted at it; later
+    * changes at the same vertex find it in a small table private to the
+    * batch.  The edge table is grown once, up front, and one VertexPair
+    * serves for every lookup that does not insert an edge.
+    *
+    * Running time:  O(b), where b is the number of changes in "batch".
+    */
+    public int applyBatch(EdgeBatch batch) {
+        GraphMutationEvent event = new GraphMutationEvent();
+        event.begin();
+        int count = batch.size();
+        int[] ends1 = batch.ends1();
+        int[] ends2 = batch.ends2();
+        int[] weights = batch.weights();
+        boolean[] removals = batch.removals();
+        //open-addressed table from vertex + 1 (0 marks an empty slot) to its
+        //sentinel, at most half full
+        int capacity = Integer.highestOneBit(Math.max(4 * batch.additions(), 16)) << 1;
+        int[] resolvedVertices = new int[capacity];
+        VSentinel[] resolvedSentinels = new VSentinel[capacity];
+
+        hashEdges.reserve(numEdges + batch.additions());
+        int changed = 0;
+        VertexPair probe = null;
+        for (int i = 0; i < count; i++) {
+            Integer u = Integer.valueOf(ends1[i]);
+            Integer v = Integer.valueOf(ends2[i]);
+            if (probe == null) {
+                probe = new VertexPair(u, v);
+            } else {
+                probe.set(u, v);
+            }
+            if (removals[i]) {
+                Entry entry = hashEdges.remove(probe);
+                if (entry != null) {
+                    detachEdge((Edge) entry.value());
+                    changed++;
+                }
+                continue;
+            }
+            Entry existing = hashEdges.find(probe);
+            if (existing != null) {
+                ((Edge) existing.value()).weight = weights[i];
+                version++;
+                changed++;
+                continue;
+            }
+            VSentinel uSentinel = sentinel(u, resolvedVertices, resolvedSentinels);
+            VSentinel vSentinel = sentinel(v, resolvedVertices, resolvedSentinels);
+            if (uSentinel == null || vSentinel == null) {
+                continue;
+            }
+            //the probe becomes the new edge's key, naming the graph's own
+            //vertex objects
+            probe.set(uSentinel.vertex, vSentinel.vertex);
+            insertEdge(probe, uSentinel, vSentinel, weights[i]);
+            probe = null;
+            changed++;
+        }
+        commit(event, "applyBatch", changed);
+        return changed;
+    }
+
+    /**
+    * sentinel() returns the sentinel of "vertex", or null if it is not a
+    * vertex of the graph, consulting the graph only if the vertex is not
+    * yet in applyBatch()'s table of resolved vertices (and then adding it).
+    */
+    private VSentinel sentinel(Integer vertex, int[] resolvedVertices,
+                               VSentinel[] resolvedSentinels) {
+        int key = vertex.intValue() + 1;
+        int mask = resolvedVertices.length - 1;
+        int slot = VertexPair.mix(key) & mask;
+        while (resolvedVertices[slot] != 0) {
+            if (resolvedVertices[slot] == key) {
+                return resolvedSentinels[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        Entry entry = hashVertices.find(vertex);
+        resolvedVertices[slot] = key;
+        if (entry != null) {
+            resolvedSentinels[slot] = (VSentinel) entry.value();
+        }
+        return resolvedSentinels[slot];
+    }
+
+    /**
+    * commit() records "event" for a finished change if a recording wants it:
+    * the event is enabled and the change took at least its threshold.
+    */
+    private void commit(GraphMutationEvent event, String operation, int affected) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.affected = affected;
+            event.vertexCount = numVertices;
+            event.edgeCount = numEdges;
+            event.commit();
+        }
     }
 
     /**
@@ -273,6 +471,36 @@ public class WUGraph {
         return false;
     }
 
+    /**
+    * vertexHashStats() returns a snapshot of the hash quality of the table
+    * mapping vertices to their sentinels.
+    *
+    * Running time:  O(number of buckets).
+    */
+    public HashStats vertexHashStats() {
+        return hashVertices.stats();
+    }
+
+    /**
+    * edgeHashStats() returns a snapshot of the hash quality of the table
+    * mapping VertexPairs to edges.
+    *
+    * Running time:  O(number of buckets).
+    */
+    public HashStats edgeHashStats() {
+        return hashEdges.stats();
+    }
+
+    /**
+    * registerHashMonitors() publishes the vertex and edge tables of this
+    * graph over JMX as "<name>.vertices" and "<name>.edges".
+    * See dict.HashTableMonitor.
+    */
+    public void registerHashMonitors(String name) {
+        HashTableMonitor.register(hashVertices, name + ".vertices");
+        HashTableMonitor.register(hashEdges, name + ".edges");
+    }
+
     /**
     * weight() returns the weight of (u, v).  Returns zero if (u, v) is not
     * an edge (including the case where either of the parameters u and v does
@@ -288,10 +516,11 @@ public class WUGraph {
     * Running time:  O(1).
     */
     public int weight(Object u, Object v) {
-        if (!isEdge(u, v)) {
+        Entry edge = hashEdges.find(new VertexPair(u, v));
+        if (edge == null) {
             return 0;
         }
-        return ((Edge)hashEdges.find(new VertexPair(u, v)).value()).weight;
+        return ((Edge)edge.value()).weight;
     }
 
 }
@@ -0,0 +1,307 @@
+/* Checkpoint.java */
+
+package graphalg;
+
+import graph.*;
+import set.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Checkpoint holds a graph, its minimum spanning tree, and the DisjointSets
+ * left by Kruskal's algorithm, and saves and restores all three in a compact
+ * binary file, so that a restarted process can skip rebuilding the graph and
+ * recomputing the tree.  No Java serialization is involved.
+ *
+ * A checkpoint file is, with all numbers little-endian:
+ *
+ *   header (64 bytes):  magic "KCKP", version, vertex count n, number of
+ *                       tree edges t, then zero padding;
+ *   graph:              the graph, in GraphFile format;
+ *   tree:               t edges, in MstResult order, each as three ints
+ *                       u, v, weight;
+ *   sets:               n ints, the DisjointSets array.
+ *
+ * Everything is read with sequential reads in one pass; the tree and sets
+ * go through a fixed-size buffer, however large the graph.
+ */
+
+public class Checkpoint {
+
+  private static final int MAGIC = 0x504B434B;    // "KCKP" read little-endian
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private IntGraph graph;
+  private MstResult tree;
+  private DisjointSets sets;
+
+  private Checkpoint(IntGraph graph, MstResult tree, DisjointSets sets) {
+    this.graph = graph;
+    this.tree = tree;
+    this.sets = sets;
+  }
+
+  /**
+   * compute() runs Kruskal's algorithm on g and returns a Checkpoint of g,
+   * its minimum spanning tree, and the resulting DisjointSets.
+   */
+  public static Checkpoint compute(IntGraph g) {
+    DisjointSets sets = new DisjointSets(g.vertexCount());
+    MstResult tree = Kruskal.mst(g, sets);
+    return new Checkpoint(g, tree, sets);
+  }
+
+  /**
+   * graph() returns the checkpointed graph.  After restore(), it is a
+   * CSRGraph held in direct buffers.
+   */
+  public IntGraph graph() {
+    return graph;
+  }
+
+  /**
+   * tree() returns the minimum spanning tree (or forest) of graph().
+   */
+  public MstResult tree() {
+    return tree;
+  }
+
+  /**
+   * sets() returns the DisjointSets holding the tree's components.
+   */
+  public DisjointSets sets() {
+    return sets;
+  }
+
+  /**
+   * save() writes "this" checkpoint to "file", replacing its contents.
+   */
+  public void save(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      int n = graph.vertexCount();
+      int t = tree.edgeCount();
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC);
+      header.putInt(VERSION);
+      header.putInt(n);
+      header.putInt(t);
+      header.clear();
+      writeFully(channel, header);
+      GraphFile.write(graph, channel);
+
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < t; i++) {
+        putInt(buf, channel, tree.end1(i));
+        putInt(buf, channel, tree.end2(i));
+        putInt(buf, channel, tree.weight(i));
+      }
+      int[] array = sets.toArray();
+      for (int i = 0; i < n; i++) {
+        putInt(buf, channel, array[i]);
+      }
+      buf.flip();
+      writeFully(channel, buf);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * restore() reads a checkpoint written by save() from "file".
+   * @throws IOException if the file cannot be read, or is not a checkpoint,
+   * or its parts do not agree (for instance, a tree or sets array sized for
+   * a graph other than the one in the file, or sets that are not the
+   * components of the tree).
+   *
+   * Running time:  one sequential read of the file.
+   */
+  public static Checkpoint restore(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      readFully(channel, header);
+      header.flip();
+      if (header.getInt() != MAGIC) {
+        throw new IOException("not a checkpoint file");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("unsupported checkpoint version " + version);
+      }
+      int n = header.getInt();
+      int t = header.getInt();
+      if (n < 0 || t < 0 || t > Math.max(n - 1, 0)) {
+        throw new IOException("checkpoint has " + t + " tree edges on " + n +
+                              " vertices");
+      }
+      CSRGraph graph = GraphFile.read(channel);
+      if (graph.vertexCount() != n) {
+        throw new IOException("checkpoint is for " + n + " vertices, but its " +
+                              "graph has " + graph.vertexCount());
+      }
+      long tail = 4L * (3L * t + n);
+      if (channel.size() - channel.position() != tail) {
+        throw new IOException("checkpoint should end " + tail + " bytes after " +
+                              "its graph, not " +
+                              (channel.size() - channel.position()));
+      }
+
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      buf.flip();
+      int[] ends1 = new int[t];
+      int[] ends2 = new int[t];
+      int[] weights = new int[t];
+      for (int i = 0; i < t; i++) {
+        ends1[i] = getVertex(buf, channel, n);
+        ends2[i] = getVertex(buf, channel, n);
+        weights[i] = getInt(buf, channel);
+      }
+      int[] array = new int[n];
+      for (int i = 0; i < n; i++) {
+        array[i] = getInt(buf, channel);
+        if (array[i] >= n || array[i] < -n) {
+          throw new IOException("checkpoint sets entry " + i + " is " + array[i]);
+        }
+      }
+      checkSets(array, ends1, ends2, t);
+      DisjointSets sets = DisjointSets.fromArray(array);
+      MstResult tree = new MstResult(n, ends1, ends2, weights, t, null, sets,
+                                     WeightTransform.MINIMUM);
+      return new Checkpoint(graph, tree, sets);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * checkSets() throws an IOException unless "array" is the parent array of
+   * disjoint sets that are exactly the components of the t tree edges:
+   * every parent link leads, without a cycle, to a root holding minus the
+   * size of its set; there are n - t roots; and the tree edges form a
+   * forest, each edge joining two vertices of one set.
+   *
+   * Running time:  O(n + t alpha(n)).  No recursion, so a long or cyclic
+   * chain of parents cannot overflow the stack.
+   */
+  private static void checkSets(int[] array, int[] ends1, int[] ends2, int t)
+      throws IOException {
+    int n = array.length;
+    int[] rootOf = new int[n];
+    int[] size = new int[n];
+    int[] path = new int[n];
+    int roots = 0;
+    for (int v = 0; v < n; v++) {
+      rootOf[v] = -1;
+    }
+    for (int v = 0; v < n; v++) {
+      int length = 0;
+      int u = v;
+      while (rootOf[u] < 0 && array[u] >= 0) {
+        if (length == n) {
+          throw new IOException("checkpoint sets have a cycle through " +
+                                "vertex " + v);
+        }
+        path[length++] = u;
+        u = array[u];
+      }
+      if (rootOf[u] < 0) {
+        rootOf[u] = u;                        // a root not met before
+        roots++;
+      }
+      for (int i = 0; i < length; i++) {
+        rootOf[path[i]] = rootOf[u];
+      }
+      size[rootOf[v]]++;
+    }
+    if (roots != n - t) {
+      throw new IOException("checkpoint sets have " + roots + " sets, but " +
+                            "its " + t + " tree edges leave " + (n - t) +
+                            " components");
+    }
+    for (int v = 0; v < n; v++) {
+      if (array[v] < 0 && -array[v] != size[v]) {
+        throw new IOException("checkpoint sets root " + v + " claims " +
+                              -array[v] + " vertices, but has " + size[v]);
+      }
+    }
+    DisjointSets forest = new DisjointSets(n);
+    for (int i = 0; i < t; i++) {
+      if (rootOf[ends1[i]] != rootOf[ends2[i]]) {
+        throw new IOException("checkpoint tree edge " + i + " joins two sets");
+      }
+      int r1 = forest.find(ends1[i]);
+      int r2 = forest.find(ends2[i]);
+      if (r1 == r2) {
+        throw new IOException("checkpoint tree edge " + i + " closes a cycle");
+      }
+      forest.union(r1, r2);
+    }
+  }
+
+  /**
+   * putInt() appends "x" to "buf", first writing "buf" out if it is full.
+   */
+  private static void putInt(ByteBuffer buf, FileChannel channel, int x)
+      throws IOException {
+    if (buf.remaining() < 4) {
+      buf.flip();
+      writeFully(channel, buf);
+      buf.clear();
+    }
+    buf.putInt(x);
+  }
+
+  /**
+   * getInt() returns the next int of "buf", first refilling it from
+   * "channel" if it is used up.
+   */
+  private static int getInt(ByteBuffer buf, FileChannel channel) throws IOException {
+    if (buf.remaining() < 4) {
+      buf.compact();
+      while (buf.position() < 4) {
+        if (channel.read(buf) < 0) {
+          throw new IOException("checkpoint file is truncated");
+        }
+      }
+      buf.flip();
+    }
+    return buf.getInt();
+  }
+
+  /**
+   * getVertex() returns the next int of "buf", which must be a vertex of an
+   * n-vertex graph.
+   */
+  private static int getVertex(ByteBuffer buf, FileChannel channel, int n)
+      throws IOException {
+    int v = getInt(buf, channel);
+    if (v < 0 || v >= n) {
+      throw new IOException("checkpoint tree names vertex " + v + " of " + n);
+    }
+    return v;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buf) throws IOException {
+    while (buf.hasRemaining()) {
+      if (channel.read(buf) < 0) {
+        throw new IOException("checkpoint file is truncated");
+      }
+    }
+  }
+
+}
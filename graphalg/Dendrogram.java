@@ -0,0 +1,173 @@
+/* Dendrogram.java */
+
+package graphalg;
+
+import set.*;
+
+/**
+ * A Dendrogram records the single-linkage hierarchical clustering that
+ * Kruskal's algorithm performs as it merges components.  The n vertices are
+ * the leaves, numbered 0...n - 1.  Merge i joins clusters left(i) and
+ * right(i) at height weight(i) into a new cluster numbered n + i, holding
+ * size(i) vertices.  Merges are in the order Kruskal's algorithm made them,
+ * so their weights never decrease (for a tree computed under another
+ * WeightTransform, their keys never decrease).  If the graph is
+ * disconnected there are fewer than n - 1 merges, and the dendrogram is a
+ * forest.
+ */
+
+public class Dendrogram {
+
+  private int numLeaves;
+  private int numMerges;
+  private int[] left;
+  private int[] right;
+  private int[] sizes;
+  private int[] weights;
+  private WeightTransform order;
+
+  /**
+   * Dendrogram() replays the edges of "tree", in the order they were
+   * accepted, through a fresh DisjointSets, recording which clusters each
+   * edge merged.
+   *
+   * Running time:  O(n alpha(n)), where n is the number of vertices.
+   */
+  Dendrogram(MstResult tree) {
+    numLeaves = tree.vertexCount();
+    numMerges = tree.edgeCount();
+    left = new int[numMerges];
+    right = new int[numMerges];
+    sizes = new int[numMerges];
+    weights = new int[numMerges];
+    order = tree.order();
+    DisjointSets sets = new DisjointSets(numLeaves);
+    // clusterOf[r] is the cluster currently represented by root r
+    int[] clusterOf = new int[numLeaves];
+    for (int v = 0; v < numLeaves; v++) {
+      clusterOf[v] = v;
+    }
+    for (int i = 0; i < numMerges; i++) {
+      int root1 = sets.find(tree.end1(i));
+      int root2 = sets.find(tree.end2(i));
+      left[i] = clusterOf[root1];
+      right[i] = clusterOf[root2];
+      sizes[i] = sizeOfCluster(left[i]) + sizeOfCluster(right[i]);
+      weights[i] = tree.weight(i);
+      sets.union(root1, root2);
+      clusterOf[sets.find(root1)] = numLeaves + i;
+    }
+  }
+
+  /**
+   * leafCount() returns the number of leaves (vertices).
+   */
+  public int leafCount() {
+    return numLeaves;
+  }
+
+  /**
+   * mergeCount() returns the number of merges.
+   */
+  public int mergeCount() {
+    return numMerges;
+  }
+
+  /**
+   * left() and right() return the two clusters joined by merge i.
+   */
+  public int left(int i) {
+    return left[i];
+  }
+
+  public int right(int i) {
+    return right[i];
+  }
+
+  /**
+   * weight() returns the height of merge i: the weight of the edge that
+   * caused it.
+   */
+  public int weight(int i) {
+    return weights[i];
+  }
+
+  /**
+   * size() returns the number of vertices in the cluster created by merge i.
+   */
+  public int size(int i) {
+    return sizes[i];
+  }
+
+  /**
+   * sizeOfCluster() returns the number of vertices in "cluster", which is
+   * a leaf or a cluster created by an earlier merge.
+   */
+  private int sizeOfCluster(int cluster) {
+    return cluster < numLeaves ? 1 : sizes[cluster - numLeaves];
+  }
+
+  /**
+   * cut() cuts the dendrogram at height "threshold": it applies every merge
+   * of weight at most "threshold" (for a maximum spanning tree, at least
+   * "threshold"; in general, of key at most the key of "threshold"), and
+   * returns a new array giving each vertex its cluster, numbered 0...k - 1
+   * in order of the clusters' lowest vertices.
+   *
+   * Running time:  O(n).
+   */
+  public int[] cut(int threshold) {
+    int applied = 0;
+    int limit = order.key(threshold);
+    while (applied < numMerges && order.key(weights[applied]) <= limit) {
+      applied++;
+    }
+    return labels(applied);
+  }
+
+  /**
+   * cutInto() cuts the dendrogram into k clusters (or as few as it can, if
+   * the dendrogram is a forest of more than k trees), and returns each
+   * vertex's cluster as cut() does.
+   *
+   * Running time:  O(n).
+   */
+  public int[] cutInto(int k) {
+    return labels(Math.max(0, Math.min(numMerges, numLeaves - k)));
+  }
+
+  /**
+   * labels() labels each vertex with its cluster after the first "applied"
+   * merges.  Every cluster created by a merge has a higher number than the
+   * two it joins, so one pass downward from the last applied merge hands
+   * each cluster its topmost applied ancestor.
+   */
+  private int[] labels(int applied) {
+    int nodes = numLeaves + applied;
+    int[] top = new int[nodes];
+    for (int c = nodes - 1; c >= 0; c--) {
+      if (c >= numLeaves) {
+        int i = c - numLeaves;
+        if (top[c] == 0) {
+          top[c] = c + 1;              // c is a root; store c plus one
+        }
+        top[left[i]] = top[c];
+        top[right[i]] = top[c];
+      } else if (top[c] == 0) {
+        top[c] = c + 1;                // an unmerged leaf is its own root
+      }
+    }
+    // Renumber the roots in order of their lowest vertex
+    int[] number = new int[nodes + 1];
+    int[] result = new int[numLeaves];
+    int next = 0;
+    for (int v = 0; v < numLeaves; v++) {
+      if (number[top[v]] == 0) {
+        number[top[v]] = ++next;
+      }
+      result[v] = number[top[v]] - 1;
+    }
+    return result;
+  }
+
+}
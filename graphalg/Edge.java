@@ -5,6 +5,11 @@ package graphalg;
 /**
  * The Edge class represents an edge in a weighted, undirected graph.
  * An edge is represented by 2 vertices that it connects: v1 and v2.
+ *
+ * Edges are ordered by sort key, then by the lower of their vertices'
+ * ranks, then by the higher.  When every vertex has a distinct rank this is
+ * a total order on the edges of a graph, so sorting them gives the same
+ * result however the sort proceeds.
  */
 
 public class Edge implements Comparable {
@@ -12,6 +17,9 @@ public class Edge implements Comparable {
   private Object v1;
   private Object v2;
   private int weight;
+  private int key;
+  private int rank1;
+  private int rank2;
 
   /**
    * Edge() creates an Edge object with v1 and v2 being the 2 vertices
@@ -19,9 +27,30 @@ public class Edge implements Comparable {
    * since this is an edge in an undirected graph.
    */
   public Edge(Object v1, Object v2, int weight) {
+    this(v1, v2, weight, weight);
+  }
+
+  /**
+   * Edge() creates an Edge object as above that sorts by "key" instead of
+   * by its weight.  See WeightTransform.
+   */
+  public Edge(Object v1, Object v2, int weight, int key) {
+    this(v1, v2, weight, key, 0, 0);
+  }
+
+  /**
+   * Edge() creates an Edge object as above whose vertices v1 and v2 have the
+   * unique integer ranks rank1 and rank2, which break ties between edges
+   * of equal key.
+   */
+  public Edge(Object v1, Object v2, int weight, int key, int rank1,
+              int rank2) {
     this.v1 = v1;
     this.v2 = v2;
     this.weight = weight;
+    this.key = key;
+    this.rank1 = rank1;
+    this.rank2 = rank2;
   }
 
   /**
@@ -45,22 +74,44 @@ public class Edge implements Comparable {
     return weight;
   }
 
+  /**
+   * getRank1() returns the rank of v1.
+   */
+  public int getRank1() {
+    return rank1;
+  }
+
+  /**
+   * getRank2() returns the rank of v2.
+   */
+  public int getRank2() {
+    return rank2;
+  }
+
   /**
    * overwrite compareTo() method for Comparable to take into account
-   * Edge objects to compare weights.
+   * Edge objects to compare sort keys (by default, their weights), then
+   * the lower ranks of their vertices, then the higher ranks.
    * @param o: the object (cast to edge) being compared against
-   * @return -1 if this wedge's weight is less than o's weight, 0 if
-   * this edge's weight is equal to o's weight, and 1 if greater.
+   * @return -1 if this edge comes before o, 0 if they are tied on key and
+   * both ranks, and 1 if this edge comes after o.
    */
   public int compareTo(Object o) {
     Edge e = (Edge) o;
-    if (this.getWeight() < e.getWeight()) {
-      return -1;
-    } else if (this.getWeight() == e.getWeight()) {
-      return 0;
-    } else {
-      return 1;
+    if (this.key != e.key) {
+      return this.key < e.key ? -1 : 1;
+    }
+    int low = Math.min(rank1, rank2);
+    int otherLow = Math.min(e.rank1, e.rank2);
+    if (low != otherLow) {
+      return low < otherLow ? -1 : 1;
+    }
+    int high = Math.max(rank1, rank2);
+    int otherHigh = Math.max(e.rank1, e.rank2);
+    if (high != otherHigh) {
+      return high < otherHigh ? -1 : 1;
     }
+    return 0;
   }
 
   /**
@@ -0,0 +1,158 @@
+/* EdgeList.java */
+
+package graphalg;
+
+import graph.*;
+import dict.*;
+import java.util.Arrays;
+
+/**
+ * An EdgeList holds every edge of a graph once, in three parallel int
+ * arrays, with the vertices numbered 0...numVertices - 1.  It is the input
+ * Kruskal's algorithm sorts and scans, whatever kind of graph it came from.
+ *
+ * The edges of a graph are listed in a canonical order:  each edge (u, v)
+ * with u <= v is stored as ends1 = u, ends2 = v, sorted by u and then by v.
+ * The order does not depend on the order of any adjacency list, so
+ * breaking ties between equal keys by position in the list breaks them by
+ * (lower end, higher end), and two graphs with the same numbered edges give
+ * the same tree.  A WUGraph's vertices are numbered in the order they were
+ * added, so its tree depends on that order as well as its edges.
+ */
+
+class EdgeList {
+
+  int numVertices;
+  int[] ends1;
+  int[] ends2;
+  int[] weights;
+  int size;
+  // the vertex object of each number, or null if the graph was an IntGraph
+  Object[] vertices;
+
+  private EdgeList(int numVertices, int capacity, Object[] vertices) {
+    this.numVertices = numVertices;
+    this.vertices = vertices;
+    ends1 = new int[capacity];
+    ends2 = new int[capacity];
+    weights = new int[capacity];
+  }
+
+  /**
+   * of() returns the edges of the WUGraph g, with each vertex numbered by
+   * its position in g.getVertices().  Each edge is copied while reading the
+   * neighbors of its lower-numbered end.
+   */
+  static EdgeList of(WUGraph g) {
+    return of(g, g.getVertices());
+  }
+
+  /**
+   * of() returns the edges of the WUGraph g, with each vertex numbered by
+   * its position in "allVertices", which must hold every vertex of g.
+   */
+  static EdgeList of(WUGraph g, Object[] allVertices) {
+    EdgeList edges = new EdgeList(allVertices.length, g.edgeCount(), allVertices);
+
+    // Hash the vertices, mapping each to a unique int rank
+    HashTableChained ranks = new HashTableChained(allVertices.length);
+    for (int i = 0; i < allVertices.length; i++) {
+      ranks.insert(allVertices[i], new Vertex(allVertices[i], i));
+    }
+
+    for (int u = 0; u < allVertices.length; u++) {
+      Neighbors neighbors = g.getNeighbors(allVertices[u]);
+      if (neighbors == null) {
+        continue;
+      }
+      int start = edges.size;
+      for (int j = 0; j < neighbors.neighborList.length; j++) {
+        int v = ((Vertex) ranks.find(neighbors.neighborList[j]).value()).getRank();
+        if (v >= u) {
+          edges.add(u, v, neighbors.weightList[j]);
+        }
+      }
+      edges.sortByEnd2(start);
+    }
+    return edges;
+  }
+
+  /**
+   * of() returns the edges of the IntGraph g.  Each edge is copied while
+   * reading the neighbors of its lower-numbered end.
+   */
+  static EdgeList of(IntGraph g) {
+    EdgeList edges = new EdgeList(g.vertexCount(), g.edgeCount(), null);
+    int[] neighborList = new int[16];
+    int[] weightList = new int[16];
+    for (int u = 0; u < g.vertexCount(); u++) {
+      int deg = g.degree(u);
+      if (deg > neighborList.length) {
+        neighborList = new int[Math.max(deg, 2 * neighborList.length)];
+        weightList = new int[neighborList.length];
+      }
+      g.copyNeighbors(u, neighborList, weightList);
+      int start = edges.size;
+      for (int j = 0; j < deg; j++) {
+        if (neighborList[j] >= u) {
+          edges.add(u, neighborList[j], weightList[j]);
+        }
+      }
+      edges.sortByEnd2(start);
+    }
+    return edges;
+  }
+
+  /**
+   * of() returns the edges of the tree or forest t.
+   */
+  static EdgeList of(MstResult t) {
+    EdgeList edges = new EdgeList(t.vertexCount(), t.edgeCount(), null);
+    for (int i = 0; i < t.edgeCount(); i++) {
+      edges.add(t.end1(i), t.end2(i), t.weight(i));
+    }
+    return edges;
+  }
+
+  /**
+   * sortByEnd2() sorts edges start...size - 1, which share ends1, by ends2.
+   * Short runs (the common case) are insertion sorted; longer ones are
+   * packed into longs, ends2 above the weight, and sorted as such.
+   */
+  private void sortByEnd2(int start) {
+    int length = size - start;
+    if (length <= 16) {
+      for (int i = start + 1; i < size; i++) {
+        int v = ends2[i];
+        int w = weights[i];
+        int j = i - 1;
+        while (j >= start && ends2[j] > v) {
+          ends2[j + 1] = ends2[j];
+          weights[j + 1] = weights[j];
+          j--;
+        }
+        ends2[j + 1] = v;
+        weights[j + 1] = w;
+      }
+      return;
+    }
+    long[] packed = new long[length];
+    for (int i = 0; i < length; i++) {
+      packed[i] = ((long) ends2[start + i] << 32) |
+                  (weights[start + i] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(packed);
+    for (int i = 0; i < length; i++) {
+      ends2[start + i] = (int) (packed[i] >>> 32);
+      weights[start + i] = (int) packed[i];
+    }
+  }
+
+  private void add(int u, int v, int weight) {
+    ends1[size] = u;
+    ends2[size] = v;
+    weights[size] = weight;
+    size++;
+  }
+
+}
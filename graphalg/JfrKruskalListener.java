@@ -0,0 +1,60 @@
+/* JfrKruskalListener.java */
+
+package graphalg;
+
+/**
+ * A JfrKruskalListener emits a KruskalEvent ("graphalg.Kruskal") to Java
+ * Flight Recorder for every run of Kruskal's algorithm.  The event begins
+ * as the run starts and is committed as the run ends, so its duration is
+ * the run's; its fields carry the per-phase times and counters.  If no
+ * recording has the event enabled, the listener does nothing beyond the
+ * check.
+ *
+ * To record:  Kruskal.setListener(new JfrKruskalListener()), then run with
+ * -XX:StartFlightRecording or start a recording from JDK Mission Control.
+ */
+
+public class JfrKruskalListener implements KruskalListener {
+
+  /**
+   * started() begins a KruskalEvent for the run, if a recording wants one.
+   */
+  public void started(KruskalMetrics metrics) {
+    KruskalEvent event = new KruskalEvent();
+    if (event.isEnabled()) {
+      event.begin();
+      metrics.attachment = event;
+    }
+  }
+
+  /**
+   * finished() ends the run's KruskalEvent, copies "metrics" into it, and
+   * commits it.
+   */
+  public void finished(KruskalMetrics metrics) {
+    if (!(metrics.attachment instanceof KruskalEvent)) {
+      return;
+    }
+    KruskalEvent event = (KruskalEvent) metrics.attachment;
+    metrics.attachment = null;
+    event.end();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    event.method = metrics.method;
+    event.vertices = metrics.vertices;
+    event.edges = metrics.edges;
+    event.extractNanos = metrics.nanos[KruskalMetrics.EXTRACT];
+    event.sortNanos = metrics.nanos[KruskalMetrics.SORT];
+    event.hashNanos = metrics.nanos[KruskalMetrics.HASH];
+    event.unionFindNanos = metrics.nanos[KruskalMetrics.UNION_FIND];
+    event.outputNanos = metrics.nanos[KruskalMetrics.OUTPUT];
+    event.bytes = metrics.totalBytes();
+    event.edgesExamined = metrics.edgesExamined;
+    event.edgesAccepted = metrics.edgesAccepted;
+    event.findCalls = metrics.findCalls;
+    event.compressionSteps = metrics.compressionSteps;
+    event.commit();
+  }
+
+}
@@ -6,17 +6,74 @@ import graph.*;
 import set.*;
 import queue.*;
 import dict.*;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * The Kruskal class contains the method minSpanTree(), which implements
- * Kruskal's algorithm for computing a minimum spanning tree of a graph.
+ * Kruskal's algorithm for computing a minimum spanning tree of a graph, and
+ * the method mst(), which computes the same tree as a lightweight MstResult.
+ *
+ * If a KruskalListener is installed with setListener(), every run records a
+ * KruskalMetrics (per-phase times and allocation, and union-find counters)
+ * and hands it to the listener.  With no listener, the only cost is one
+ * check per phase.
+ *
+ * Edges of equal weight are taken in order of the ranks of their ends
+ * (lower, then higher).  An IntGraph's vertices are ranked by number; a
+ * WUGraph's by position in getVertices(), which is the order they were
+ * added.  So the tree is the same on every run, and the same for an
+ * IntGraph and a CSRGraph with the same edges, or a WUGraph whose vertices
+ * were added in the same order as their numbers.  The same WUGraph built
+ * with its vertices added in another order may give a different tree of
+ * the same weight.
  */
 
 public class Kruskal {
 
   private int vertexRank = 0;
 
+  private static final long PIVOT_SEED = 61;
+
+  private static volatile KruskalListener listener;
+
+  /**
+   * setListener() installs "l" to be told about every later run of
+   * Kruskal's algorithm, on any thread.  null removes the listener.
+   */
+  public static void setListener(KruskalListener l) {
+    listener = l;
+  }
+
+  /**
+   * getListener() returns the installed listener, or null.
+   */
+  public static KruskalListener getListener() {
+    return listener;
+  }
+
+  /**
+   * begin() starts the metrics of a run of "method", or returns null if no
+   * listener is installed.
+   */
+  private static KruskalMetrics begin(String method) {
+    KruskalListener l = listener;
+    if (l == null) {
+      return null;
+    }
+    return new KruskalMetrics(method, l);
+  }
+
+  /**
+   * compressions() returns the number of parent links a find(x) on "sets"
+   * will change.  Call it just before that find(), after any earlier one:
+   * a find() shortens the paths of every other element that shares its
+   * path.
+   */
+  private static int compressions(DisjointSets sets, int x) {
+    return Math.max(sets.pathLength(x) - 1, 0);
+  }
+
   /**
    * minSpanTree() returns a WUGraph that represents the minimum spanning tree
    * of the WUGraph g.  The original WUGraph g is NOT changed.
@@ -25,6 +82,18 @@ public class Kruskal {
    * @return A newly constructed WUGraph representing the MST of g.
    */
   public static WUGraph minSpanTree(WUGraph g) {
+    return minSpanTree(g, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * minSpanTree() returns a WUGraph that represents the spanning tree of the
+   * WUGraph g that is minimal with respect to "order": the edges are taken
+   * in nondecreasing order of order.key(weight).  With
+   * WeightTransform.MAXIMUM, this is a maximum spanning tree.  The original
+   * WUGraph g is NOT changed.
+   */
+  public static WUGraph minSpanTree(WUGraph g, WeightTransform order) {
+    KruskalMetrics metrics = begin("minSpanTree");
 
     // t will be the MST of g
     WUGraph t = new WUGraph();
@@ -34,33 +103,56 @@ public class Kruskal {
     for (int i = 0; i < allVertices.length; i++) {
       t.addVertex(allVertices[i]);
     }
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.OUTPUT);
+    }
+
+    // Hash the vertices
+    HashTableChained vertices = new HashTableChained(allVertices.length);
+    int vertexRank = 0; // Needed for mapping vertices to unique integers
+    for (int i = 0; i < allVertices.length; i++) {
+      Object key = allVertices[i];
+      Vertex value = new Vertex(key, vertexRank);
+      vertexRank ++;
+      vertices.insert(key, value);
+    }
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.HASH);
+    }
 
-    // Make a list of all edges in g
+    // Make a list of all edges in g, each listed once, by its lower-ranked
+    // end.  The ranks break ties between edges of equal weight, so the
+    // sorted order (and hence the tree) is the same on every run.
     LinkedQueue allEdges = new LinkedQueue();
     for (int i = 0; i < allVertices.length; i++) {
       Object currVertex = allVertices[i];
       Neighbors neighbors = g.getNeighbors(currVertex);
+      if (neighbors == null) {
+        continue; // currVertex has no edges
+      }
       Object[] neighborList = neighbors.neighborList; // Neighbors of currVertex
       int[] weightList = neighbors.weightList;
       for (int j = 0; j < neighborList.length; j++) {
         Object currNeighbor = neighborList[j];
+        int neighborRank = ((Vertex) vertices.find(currNeighbor).value()).getRank();
+        if (neighborRank < i) {
+          continue; // listed already, from currNeighbor
+        }
         int currWeight = weightList[j];
-        Edge edge = new Edge(currVertex, currNeighbor, currWeight);
+        Edge edge = new Edge(currVertex, currNeighbor, currWeight,
+                             order.key(currWeight), i, neighborRank);
         allEdges.enqueue(edge);
       }
     }
 
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.EXTRACT);
+    }
+
     // Sort all the edges of g
     quickSort(allEdges);
-
-    // Hash the vertices
-    HashTableChained vertices = new HashTableChained(allVertices.length);
-    int vertexRank = 0; // Needed for mapping vertices to unique integers
-    for (int i = 0; i < allVertices.length; i++) {
-      Object key = allVertices[i];
-      Vertex value = new Vertex(key, vertexRank);
-      vertexRank ++;
-      vertices.insert(key, value);
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.SORT);
     }
 
     DisjointSets connections = new DisjointSets(allVertices.length);
@@ -70,17 +162,24 @@ public class Kruskal {
         Object v1 = currEdge.getV1();
         Object v2 = currEdge.getV2();
         int weight = currEdge.getWeight();
-        Vertex hashedv1 = (Vertex) vertices.find(v1).value();
-        Vertex hashedv2 = (Vertex) vertices.find(v2).value();
-        Entry entry1 = vertices.find(v1);
-        Entry entry2 = vertices.find(v2);
-        int unique1 = hashedv1.getRank(); // Grab the unique ints of vertices
-        int unique2 = hashedv2.getRank();
+        int unique1 = currEdge.getRank1(); // Grab the unique ints of vertices
+        int unique2 = currEdge.getRank2();
+        if (metrics != null) {
+          metrics.edgesExamined++;
+          metrics.findCalls += 2;
+          metrics.compressionSteps += compressions(connections, unique1);
+        }
         int root1 = connections.find(unique1);
+        if (metrics != null) {
+          metrics.compressionSteps += compressions(connections, unique2);
+        }
         int root2 = connections.find(unique2);
         if (root1 != root2) {
           t.addEdge(v1, v2, weight);
           connections.union(root1, root2);
+          if (metrics != null) {
+            metrics.edgesAccepted++;
+          }
         } else {
           continue;
         }
@@ -89,10 +188,218 @@ public class Kruskal {
         System.err.println("Queue is empty");
       } 
     }
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.UNION_FIND);
+      metrics.vertices = allVertices.length;
+      metrics.edges = g.edgeCount();
+      metrics.finish();
+    }
     return t;
 
   }
 
+  /**
+   * minSpanTree() returns an IntWUGraph that represents the minimum spanning
+   * tree (or, if g is disconnected, forest) of the IntGraph g.  Vertices are
+   * already numbered 0...n - 1, so no vertex is hashed.  The original
+   * IntGraph g is NOT changed.
+   *
+   * @param g The weighted, undirected graph whose MST we want to compute.
+   * @return A newly constructed IntWUGraph representing the MST of g.
+   */
+  public static IntWUGraph minSpanTree(IntGraph g) {
+    return mst(g).toIntWUGraph();
+  }
+
+  /**
+   * minSpanTree() returns an IntWUGraph that represents the spanning tree of
+   * the IntGraph g that is minimal with respect to "order".
+   */
+  public static IntWUGraph minSpanTree(IntGraph g, WeightTransform order) {
+    return mst(g, order).toIntWUGraph();
+  }
+
+  /**
+   * mst() returns the minimum spanning tree (or forest) of the WUGraph g as
+   * an MstResult: primitive arrays of edges, with vertices numbered by their
+   * position in g.getVertices().  No WUGraph is built unless the caller
+   * asks for one with MstResult.toWUGraph().  The original WUGraph g is NOT
+   * changed.
+   */
+  public static MstResult mst(WUGraph g) {
+    return mst(g, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * mst() returns the spanning tree (or forest) of the WUGraph g that is
+   * minimal with respect to "order" as an MstResult.  With
+   * WeightTransform.MAXIMUM, this is a maximum spanning tree.
+   */
+  public static MstResult mst(WUGraph g, WeightTransform order) {
+    KruskalMetrics metrics = begin("mst");
+    EdgeList edges = EdgeList.of(g);
+    return run(edges, new DisjointSets(edges.numVertices), 1, order, metrics);
+  }
+
+  /**
+   * mst() returns the minimum spanning tree (or forest) of the IntGraph g as
+   * an MstResult.  The original IntGraph g is NOT changed.
+   */
+  public static MstResult mst(IntGraph g) {
+    return mst(g, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * mst() returns the spanning tree (or forest) of the IntGraph g that is
+   * minimal with respect to "order" as an MstResult.
+   */
+  public static MstResult mst(IntGraph g, WeightTransform order) {
+    KruskalMetrics metrics = begin("mst");
+    return run(EdgeList.of(g), new DisjointSets(g.vertexCount()), 1, order,
+               metrics);
+  }
+
+  /**
+   * mst() computes the minimum spanning tree of g as above, using
+   * "connections", which must start with every vertex in its own set, and
+   * leaves it holding the tree's connected components.
+   */
+  static MstResult mst(IntGraph g, DisjointSets connections) {
+    KruskalMetrics metrics = begin("mst");
+    return run(EdgeList.of(g), connections, 1, WeightTransform.MINIMUM,
+               metrics);
+  }
+
+  /**
+   * cluster() partitions the vertices of the WUGraph g into k clusters by
+   * single-linkage clustering: it runs Kruskal's algorithm, but stops as
+   * soon as k components remain.  The MstResult's components are the
+   * clusters (see MstResult.component()), and its spacing() is the weight
+   * of the lightest edge between two different clusters.  If g has more
+   * than k connected components, they are the clusters, and there is no
+   * spacing.  The original WUGraph g is NOT changed.
+   * @throws IllegalArgumentException if k is less than 1.
+   */
+  public static MstResult cluster(WUGraph g, int k) {
+    checkClusters(k);
+    KruskalMetrics metrics = begin("cluster");
+    EdgeList edges = EdgeList.of(g);
+    return run(edges, new DisjointSets(edges.numVertices), k,
+               WeightTransform.MINIMUM, metrics);
+  }
+
+  /**
+   * cluster() partitions the vertices of the IntGraph g into k clusters by
+   * single-linkage clustering, as above.
+   * @throws IllegalArgumentException if k is less than 1.
+   */
+  public static MstResult cluster(IntGraph g, int k) {
+    checkClusters(k);
+    KruskalMetrics metrics = begin("cluster");
+    return run(EdgeList.of(g), new DisjointSets(g.vertexCount()), k,
+               WeightTransform.MINIMUM, metrics);
+  }
+
+  private static void checkClusters(int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("clusters must be positive: " + k);
+    }
+  }
+
+  /**
+   * run() is Kruskal's algorithm on "edges".  The edges are sorted by
+   * order.key(weight) and fed to "connections" until only "clusters"
+   * components remain (or the edges run out), and the edges accepted are
+   * returned in the order they were accepted.  If the algorithm stopped
+   * early, the scan goes on to the first remaining edge between two
+   * components, whose weight is the result's spacing.  "metrics", if not
+   * null, was started before the edges were extracted.
+   */
+  private static MstResult run(EdgeList edges, DisjointSets connections,
+                               int clusters, WeightTransform order,
+                               KruskalMetrics metrics) {
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.EXTRACT);
+    }
+    int n = edges.numVertices;
+    int m = edges.size;
+    int[] ends1 = edges.ends1;
+    int[] ends2 = edges.ends2;
+    int[] weights = edges.weights;
+
+    // Sort the edge numbers by key.  The key fills the high 32 bits of each
+    // long and the (nonnegative) edge number the low 32 bits, so the longs'
+    // signed order is the keys' order.
+    long[] sorted = new long[m];
+    for (int e = 0; e < m; e++) {
+      sorted[e] = ((long) order.key(weights[e]) << 32) | e;
+    }
+    Arrays.sort(sorted);
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.SORT);
+    }
+
+    int treeSize = Math.max(n - clusters, 0);
+    int[] tree1 = new int[treeSize];
+    int[] tree2 = new int[treeSize];
+    int[] treeWeights = new int[treeSize];
+    int t = 0;
+    int i = 0;
+    for (; i < m && t < treeSize; i++) {
+      int e = (int) sorted[i];
+      if (metrics != null) {
+        metrics.compressionSteps += compressions(connections, ends1[e]);
+      }
+      int root1 = connections.find(ends1[e]);
+      if (metrics != null) {
+        metrics.compressionSteps += compressions(connections, ends2[e]);
+      }
+      int root2 = connections.find(ends2[e]);
+      if (root1 != root2) {
+        tree1[t] = ends1[e];
+        tree2[t] = ends2[e];
+        treeWeights[t] = weights[e];
+        t++;
+        connections.union(root1, root2);
+      }
+    }
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.UNION_FIND);
+    }
+    MstResult result = new MstResult(n, tree1, tree2, treeWeights, t,
+                                     edges.vertices, connections, order);
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.OUTPUT);
+    }
+    if (clusters > 1) {
+      for (; i < m; i++) {
+        int e = (int) sorted[i];
+        if (metrics != null) {
+          metrics.compressionSteps += compressions(connections, ends1[e]);
+        }
+        int root1 = connections.find(ends1[e]);
+        if (metrics != null) {
+          metrics.compressionSteps += compressions(connections, ends2[e]);
+        }
+        if (connections.find(ends2[e]) != root1) {
+          result.setSpacing(weights[e]);
+          i++;
+          break;
+        }
+      }
+    }
+    if (metrics != null) {
+      metrics.phase(KruskalMetrics.UNION_FIND);
+      metrics.vertices = n;
+      metrics.edges = m;
+      metrics.edgesExamined = i;
+      metrics.edgesAccepted = t;
+      metrics.findCalls = 2L * i;
+      metrics.finish();
+    }
+    return result;
+  }
+
   /**
    *  partition() partitions qIn using the pivot item.  On completion of
    *  this method, qIn is empty, and its items have been moved to qSmall,
@@ -128,13 +435,13 @@ public class Kruskal {
 
   /**
   *  A helper function that returns a random number between min and max,
-  *  inclusive.
+  *  inclusive, drawn from "rand".
+  *  @param rand Source of the random numbers
   *  @param min Minimum value
   *  @param max Maximum value
   *  @return Integer between min and max, inclusive.
   **/
-  private static int randInt(int min, int max) {
-    Random rand = new Random();
+  private static int randInt(Random rand, int min, int max) {
     int randNum = rand.nextInt((max - min) + 1) + min;
     return randNum;
   }
@@ -142,21 +449,26 @@ public class Kruskal {
   /**
    *  quickSort() sorts q from smallest to largest using quicksort. In the 
    *  context of Kruskal's algorithm, it is used to sort the edges of a
-   *  weighted, undirected graph by weight.
+   *  weighted, undirected graph by weight.  The pivots are random but
+   *  seeded, so a sort of the same queue always does the same work.
    *  @param q is a LinkedQueue of Comparable objects.
    **/
   private static void quickSort(LinkedQueue q) {
+    quickSort(q, new Random(PIVOT_SEED));
+  }
+
+  private static void quickSort(LinkedQueue q, Random rand) {
     if (q.size() <= 1) {
       return;
     } else {
-      int random = randInt(1, q.size());
+      int random = randInt(rand, 1, q.size());
       Comparable pivot = (Comparable) q.nth(random);
       LinkedQueue qSmall = new LinkedQueue();
       LinkedQueue qEquals = new LinkedQueue();
       LinkedQueue qLarge = new LinkedQueue();
       partition(q, pivot, qSmall, qEquals, qLarge);
-      quickSort(qSmall);
-      quickSort(qLarge);
+      quickSort(qSmall, rand);
+      quickSort(qLarge, rand);
       q.append(qSmall);
       q.append(qEquals);
       q.append(qLarge);
@@ -0,0 +1,70 @@
+/* KruskalEvent.java */
+
+package graphalg;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A KruskalEvent is the Flight Recorder event for one run of Kruskal's
+ * algorithm, emitted by JfrKruskalListener.  It carries the same figures
+ * as a KruskalMetrics.  Bytes are -1 where the JVM cannot count them.
+ */
+
+@Name("graphalg.Kruskal")
+@Label("Kruskal MST")
+@Category({"Graph", "Kruskal"})
+@Description("One run of Kruskal's algorithm, with per-phase times")
+class KruskalEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Vertices")
+  int vertices;
+
+  @Label("Edges")
+  int edges;
+
+  @Label("Extract Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long extractNanos;
+
+  @Label("Sort Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long sortNanos;
+
+  @Label("Hash Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long hashNanos;
+
+  @Label("Union-Find Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long unionFindNanos;
+
+  @Label("Output Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long outputNanos;
+
+  @Label("Allocated")
+  @DataAmount(DataAmount.BYTES)
+  long bytes;
+
+  @Label("Edges Examined")
+  long edgesExamined;
+
+  @Label("Edges Accepted")
+  long edgesAccepted;
+
+  @Label("Find Calls")
+  long findCalls;
+
+  @Label("Compression Steps")
+  long compressionSteps;
+
+}
@@ -0,0 +1,26 @@
+/* KruskalListener.java */
+
+package graphalg;
+
+/**
+ * A KruskalListener is told about every run of Kruskal's algorithm while it
+ * is installed with Kruskal.setListener().  With no listener installed,
+ * Kruskal keeps no metrics at all.
+ */
+
+public interface KruskalListener {
+
+  /**
+   * started() is called, on the thread that will run Kruskal's algorithm,
+   * as a run begins, before its clock starts.  The listener may keep
+   * per-run state in metrics.attachment.
+   */
+  public void started(KruskalMetrics metrics);
+
+  /**
+   * finished() is called, on the thread that ran Kruskal's algorithm, when a
+   * run ends.  "metrics" belongs to the listener from then on.
+   */
+  public void finished(KruskalMetrics metrics);
+
+}
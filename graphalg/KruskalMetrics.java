@@ -0,0 +1,160 @@
+/* KruskalMetrics.java */
+
+package graphalg;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The KruskalMetrics class records where one run of Kruskal's algorithm
+ * spent its time and memory.  It is filled in only while a KruskalListener
+ * is installed (see Kruskal.setListener()), and is handed to the listener
+ * when the run ends.
+ *
+ * The phases are:
+ *   EXTRACT     reading the graph's edges (for mst() on a WUGraph, this
+ *               includes numbering the vertices through a hash table)
+ *   SORT        sorting the edges
+ *   HASH        hashing the vertices (minSpanTree() on a WUGraph only)
+ *   UNION_FIND  scanning the sorted edges through the disjoint sets (for
+ *               minSpanTree(), this includes adding each accepted edge to
+ *               the output WUGraph)
+ *   OUTPUT      building the result
+ * Each phase's wall time is in nanos[phase] and the bytes the thread
+ * allocated during it in bytes[phase] (-1 if the JVM cannot count them).
+ *
+ * Since this class is NOT an abstract data type, but is merely a collection of
+ * data, all fields are public.
+ */
+
+public class KruskalMetrics {
+
+  public static final int EXTRACT = 0;
+  public static final int SORT = 1;
+  public static final int HASH = 2;
+  public static final int UNION_FIND = 3;
+  public static final int OUTPUT = 4;
+  public static final int PHASES = 5;
+
+  private static final String[] PHASE_NAMES =
+    {"extract", "sort", "hash", "unionFind", "output"};
+
+  // "minSpanTree", "mst", or "cluster"
+  public String method;
+  public int vertices;
+  public int edges;
+  public long[] nanos = new long[PHASES];
+  public long[] bytes = new long[PHASES];
+  public long edgesExamined;
+  public long edgesAccepted;
+  public long findCalls;
+  // the number of parent links changed by path compression
+  public long compressionSteps;
+  // whatever the listener's started() left here for finished()
+  public Object attachment;
+
+  private KruskalListener listener;
+  private long lastNanos;
+  private long lastBytes;
+
+  /**
+   * KruskalMetrics() tells "listener" that a run of "method" is starting,
+   * then starts the clock on it.
+   */
+  KruskalMetrics(String method, KruskalListener listener) {
+    this.method = method;
+    this.listener = listener;
+    listener.started(this);
+    lastBytes = allocatedBytes();
+    lastNanos = System.nanoTime();
+  }
+
+  /**
+   * phase() charges the time and allocation since the last call (or since
+   * the run began) to "phase".
+   */
+  void phase(int phase) {
+    long now = System.nanoTime();
+    long allocated = allocatedBytes();
+    nanos[phase] += now - lastNanos;
+    if (allocated < 0 || lastBytes < 0 || bytes[phase] < 0) {
+      bytes[phase] = -1;
+    } else {
+      bytes[phase] += allocated - lastBytes;
+    }
+    lastBytes = allocated;
+    lastNanos = System.nanoTime();
+  }
+
+  /**
+   * finish() reports the finished run to the listener.
+   */
+  void finish() {
+    listener.finished(this);
+  }
+
+  /**
+   * totalNanos() returns the wall time of all the phases together.
+   */
+  public long totalNanos() {
+    long sum = 0;
+    for (int p = 0; p < PHASES; p++) {
+      sum += nanos[p];
+    }
+    return sum;
+  }
+
+  /**
+   * totalBytes() returns the bytes allocated in all the phases together, or
+   * -1 if the JVM cannot count them.
+   */
+  public long totalBytes() {
+    long sum = 0;
+    for (int p = 0; p < PHASES; p++) {
+      if (bytes[p] < 0) {
+        return -1;
+      }
+      sum += bytes[p];
+    }
+    return sum;
+  }
+
+  /**
+   * phaseName() returns the name of "phase", as used by toString().
+   */
+  public static String phaseName(int phase) {
+    return PHASE_NAMES[phase];
+  }
+
+  /**
+   * toString() returns a one-line summary of "this" run.  Used for
+   * logging and debugging purposes.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder(method);
+    sb.append(" vertices=").append(vertices).append(" edges=").append(edges);
+    for (int p = 0; p < PHASES; p++) {
+      sb.append(' ').append(PHASE_NAMES[p]).append("Nanos=").append(nanos[p]);
+    }
+    sb.append(" bytes=").append(totalBytes());
+    sb.append(" examined=").append(edgesExamined);
+    sb.append(" accepted=").append(edgesAccepted);
+    sb.append(" finds=").append(findCalls);
+    sb.append(" compressions=").append(compressionSteps);
+    return sb.toString();
+  }
+
+  /**
+   * allocatedBytes() returns the number of bytes the current thread has
+   * allocated so far, or -1 if the JVM cannot say.
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+}
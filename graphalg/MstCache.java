@@ -0,0 +1,182 @@
+/* MstCache.java */
+
+package graphalg;
+
+import graph.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An MstCache remembers the minimum spanning trees of recently seen WUGraphs.
+ * Each tree is stored with the graph's version() at the time it was
+ * computed, and is returned again, without recomputation, for as long as
+ * the graph's version is unchanged.  Once the graph changes, the next
+ * request recomputes the tree and replaces the stale one.
+ *
+ * The cache holds at most "capacity" trees, one per graph and
+ * WeightTransform; when it is full, the least recently used is dropped.
+ * Graphs are matched by identity, not by equals().  The cache holds its
+ * graphs strongly, so a graph stays reachable until its entry is evicted
+ * or the cache is cleared.
+ *
+ * An MstCache may be shared by several threads, and so may the MstResults
+ * it returns.  Two threads asking for the same stale tree at once may both
+ * compute it.
+ */
+
+public class MstCache {
+
+  private Entries entries;
+  private long hits;
+  private long misses;
+
+  /**
+   * Key identifies a graph (by identity) and the order its tree was
+   * computed with.
+   */
+  private static class Key {
+    WUGraph graph;
+    WeightTransform order;
+
+    Key(WUGraph graph, WeightTransform order) {
+      this.graph = graph;
+      this.order = order;
+    }
+
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).graph == graph &&
+        ((Key) o).order == order;
+    }
+
+    public int hashCode() {
+      return System.identityHashCode(graph) * 31 +
+        System.identityHashCode(order);
+    }
+  }
+
+  /**
+   * Cached is a tree together with the graph version it was computed at.
+   */
+  private static class Cached {
+    long version;
+    MstResult tree;
+
+    Cached(long version, MstResult tree) {
+      this.version = version;
+      this.tree = tree;
+    }
+  }
+
+  /**
+   * Entries maps each Key to its Cached tree in access order, and drops the
+   * least recently used entry when a put() takes it over capacity.
+   */
+  private static class Entries extends LinkedHashMap<Key, Cached> {
+    private static final long serialVersionUID = 1L;
+
+    private int capacity;
+
+    Entries(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+      return size() > capacity;
+    }
+  }
+
+  /**
+   * MstCache() constructs an empty cache holding at most "capacity" trees.
+   */
+  public MstCache(int capacity) {
+    entries = new Entries(Math.max(capacity, 1));
+  }
+
+  /**
+   * mst() returns the minimum spanning tree of g, as Kruskal.mst(g) would,
+   * computing it only if it is not cached for g's current version.
+   */
+  public MstResult mst(WUGraph g) {
+    return mst(g, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * mst() returns the spanning tree of g that is minimal with respect to
+   * "order", as Kruskal.mst(g, order) would, computing it only if it is not
+   * cached for g's current version.
+   */
+  public MstResult mst(WUGraph g, WeightTransform order) {
+    Key key = new Key(g, order);
+    long version = g.version();
+    synchronized (this) {
+      Cached cached = entries.get(key);
+      if (cached != null && cached.version == version) {
+        hits++;
+        return cached.tree;
+      }
+      misses++;
+    }
+    MstResult tree = Kruskal.mst(g, order);
+    synchronized (this) {
+      Cached newer = entries.get(key);
+      if (newer != null && newer.version > version) {
+        return tree;               // another thread cached a later version
+      }
+      entries.put(key, new Cached(version, tree));
+    }
+    return tree;
+  }
+
+  /**
+   * minSpanTree() returns a newly constructed WUGraph holding the minimum
+   * spanning tree of g, as Kruskal.minSpanTree(g) would (the two compute the
+   * same tree).  Only the MstResult is cached, so the caller may change the
+   * WUGraph freely.
+   */
+  public WUGraph minSpanTree(WUGraph g) {
+    return mst(g).newWUGraph();
+  }
+
+  /**
+   * invalidate() drops every tree cached for g.
+   */
+  public synchronized void invalidate(WUGraph g) {
+    Iterator<Key> i = entries.keySet().iterator();
+    while (i.hasNext()) {
+      if (i.next().graph == g) {
+        i.remove();
+      }
+    }
+  }
+
+  /**
+   * clear() drops every cached tree.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * size() returns the number of trees cached.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * hits() returns the number of requests answered from the cache.
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * misses() returns the number of requests that computed a tree.
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+}
@@ -0,0 +1,290 @@
+/* MstResult.java */
+
+package graphalg;
+
+import graph.*;
+import set.*;
+
+/**
+ * An MstResult is a minimum spanning tree (or forest) computed by
+ * Kruskal.mst(), held as primitive arrays.  Vertices are numbered
+ * 0...vertexCount() - 1; edge i joins end1(i) and end2(i) and has weight
+ * weight(i), and edges are numbered in the order Kruskal's algorithm
+ * accepted them, which is nondecreasing weight (more generally,
+ * nondecreasing key under the WeightTransform the tree was computed with).
+ * A WUGraph or IntWUGraph holding the tree is built only if asked for.
+ *
+ * If the graph is disconnected, the result is a forest with one tree per
+ * connected component.  Components are numbered 0...componentCount() - 1
+ * in order of their lowest-numbered vertex.
+ *
+ * An MstResult may be shared by several threads once it is safely
+ * published (as MstCache does).  The structures built on first use are
+ * built under the result's lock, so every thread gets the same one.
+ */
+
+public class MstResult {
+
+  private int numVertices;
+  private int[] ends1;
+  private int[] ends2;
+  private int[] weights;
+  private int numEdges;
+  private long totalWeight;
+  private Object[] vertices;
+  private WUGraph wuGraph;
+  private int[] componentOf;
+  private int[] componentSizes;
+  private long[] componentWeights;
+  private WeightTransform order;
+  private Dendrogram dendrogram;
+  private PathMaxIndex pathMaxIndex;
+  private ReconstructionTree reconstructionTree;
+  private boolean hasSpacing;
+  private int spacing;
+
+  /**
+   * MstResult() wraps the first numEdges entries of the given arrays.
+   * "vertices", if not null, holds the vertex object of each number.
+   * "connections" holds the forest's components; the component labels are
+   * read off its roots, and each tree edge's weight is added to its
+   * component's total.  Neither step looks at the graph's other edges.
+   */
+  MstResult(int numVertices, int[] ends1, int[] ends2, int[] weights,
+            int numEdges, Object[] vertices, DisjointSets connections,
+            WeightTransform order) {
+    this.numVertices = numVertices;
+    this.order = order;
+    this.ends1 = ends1;
+    this.ends2 = ends2;
+    this.weights = weights;
+    this.numEdges = numEdges;
+    this.vertices = vertices;
+
+    // Number the roots in order of first appearance
+    int k = numVertices - numEdges;
+    int[] labelOfRoot = new int[numVertices];
+    componentOf = new int[numVertices];
+    componentSizes = new int[k];
+    componentWeights = new long[k];
+    int next = 0;
+    for (int v = 0; v < numVertices; v++) {
+      int root = connections.find(v);
+      if (labelOfRoot[root] == 0) {
+        labelOfRoot[root] = ++next;       // labels are stored plus one
+      }
+      componentOf[v] = labelOfRoot[root] - 1;
+      componentSizes[componentOf[v]]++;
+    }
+    for (int i = 0; i < numEdges; i++) {
+      totalWeight += weights[i];
+      componentWeights[componentOf[ends1[i]]] += weights[i];
+    }
+  }
+
+  /**
+   * vertexCount() returns the number of vertices of the graph.
+   */
+  public int vertexCount() {
+    return numVertices;
+  }
+
+  /**
+   * edgeCount() returns the number of edges in the tree.
+   */
+  public int edgeCount() {
+    return numEdges;
+  }
+
+  /**
+   * end1() and end2() return the two vertex numbers of edge i.
+   */
+  public int end1(int i) {
+    return ends1[i];
+  }
+
+  public int end2(int i) {
+    return ends2[i];
+  }
+
+  /**
+   * weight() returns the weight of edge i.
+   */
+  public int weight(int i) {
+    return weights[i];
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of the tree's edges.
+   */
+  public long totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * componentCount() returns the number of connected components of the
+   * graph, which is the number of trees in the forest.
+   */
+  public int componentCount() {
+    return numVertices - numEdges;
+  }
+
+  /**
+   * component() returns the number of the component containing vertex v.
+   */
+  public int component(int v) {
+    return componentOf[v];
+  }
+
+  /**
+   * componentLabels() returns a new array holding component(v) at index v,
+   * for every vertex v.
+   */
+  public int[] componentLabels() {
+    int[] labels = new int[numVertices];
+    System.arraycopy(componentOf, 0, labels, 0, numVertices);
+    return labels;
+  }
+
+  /**
+   * componentSize() returns the number of vertices in component c.
+   */
+  public int componentSize(int c) {
+    return componentSizes[c];
+  }
+
+  /**
+   * componentEdgeCount() returns the number of tree edges in component c,
+   * which is one less than its number of vertices.
+   */
+  public int componentEdgeCount(int c) {
+    return componentSizes[c] - 1;
+  }
+
+  /**
+   * componentWeight() returns the total weight of the tree spanning
+   * component c.
+   */
+  public long componentWeight(int c) {
+    return componentWeights[c];
+  }
+
+  /**
+   * order() returns the WeightTransform the tree was computed with.
+   */
+  public WeightTransform order() {
+    return order;
+  }
+
+  /**
+   * hasSpacing() returns true if some edge of the graph joins two different
+   * trees of this forest.  That happens only when the forest comes from
+   * Kruskal.cluster(), which stops before the spanning forest is complete.
+   */
+  public boolean hasSpacing() {
+    return hasSpacing;
+  }
+
+  /**
+   * spacing() returns the weight of the lightest edge of the graph joining
+   * two different trees of this forest: the spacing of a single-linkage
+   * clustering.  Returns zero if hasSpacing() is false.
+   */
+  public int spacing() {
+    return spacing;
+  }
+
+  void setSpacing(int spacing) {
+    this.spacing = spacing;
+    this.hasSpacing = true;
+  }
+
+  /**
+   * dendrogram() returns the single-linkage dendrogram of the merges
+   * Kruskal's algorithm made: the tree's edges, in the order they were
+   * accepted, record the whole merge sequence.  It is built on the first
+   * call, in O(n alpha(n)) time, and then reused.
+   */
+  public synchronized Dendrogram dendrogram() {
+    if (dendrogram == null) {
+      dendrogram = new Dendrogram(this);
+    }
+    return dendrogram;
+  }
+
+  /**
+   * pathMaxIndex() returns an index answering, for any two vertices, which
+   * edge is heaviest on the tree path between them.  It is built on the
+   * first call, in O(n log n) time, and then reused.
+   */
+  public synchronized PathMaxIndex pathMaxIndex() {
+    if (pathMaxIndex == null) {
+      pathMaxIndex = new PathMaxIndex(this);
+    }
+    return pathMaxIndex;
+  }
+
+  /**
+   * reconstructionTree() returns the Kruskal reconstruction tree of the
+   * unions Kruskal's algorithm made, which answers minimax-distance queries
+   * in O(1) time.  It is built on the first call, in O(n log n) time, and
+   * then reused.
+   */
+  public synchronized ReconstructionTree reconstructionTree() {
+    if (reconstructionTree == null) {
+      reconstructionTree = new ReconstructionTree(this);
+    }
+    return reconstructionTree;
+  }
+
+  /**
+   * vertex() returns the vertex object numbered "rank": the object given
+   * to WUGraph.addVertex() if the tree was computed from a WUGraph, or else
+   * Integer.valueOf(rank).
+   */
+  public Object vertex(int rank) {
+    if (vertices == null) {
+      return Integer.valueOf(rank);
+    }
+    return vertices[rank];
+  }
+
+  /**
+   * toWUGraph() returns a WUGraph holding the tree, with the vertex objects
+   * given by vertex().  It is built on the first call and then reused, so
+   * callers must not change it.
+   */
+  public synchronized WUGraph toWUGraph() {
+    if (wuGraph == null) {
+      wuGraph = newWUGraph();
+    }
+    return wuGraph;
+  }
+
+  /**
+   * newWUGraph() returns a newly constructed WUGraph holding the tree, with
+   * the vertex objects given by vertex().
+   */
+  WUGraph newWUGraph() {
+    WUGraph t = new WUGraph();
+    for (int v = 0; v < numVertices; v++) {
+      t.addVertex(vertex(v));
+    }
+    for (int i = 0; i < numEdges; i++) {
+      t.addEdge(vertex(ends1[i]), vertex(ends2[i]), weights[i]);
+    }
+    return t;
+  }
+
+  /**
+   * toIntWUGraph() returns a newly constructed IntWUGraph holding the tree.
+   */
+  public IntWUGraph toIntWUGraph() {
+    IntWUGraph t = new IntWUGraph(numVertices, Math.max(numEdges, 1));
+    for (int i = 0; i < numEdges; i++) {
+      t.addEdge(ends1[i], ends2[i], weights[i]);
+    }
+    return t;
+  }
+
+}
@@ -0,0 +1,315 @@
+/* MstVerifier.java */
+
+package graphalg;
+
+import graph.*;
+import set.*;
+import dict.*;
+
+/**
+ * The MstVerifier class checks that a claimed spanning tree (or forest) is a
+ * minimum spanning forest of a graph.  It checks that every tree edge is an
+ * edge of the graph with the same weight, that the tree edges form no
+ * cycle, that the forest has one tree per connected component of the
+ * graph, and the cycle property: no edge outside the tree is lighter than
+ * the heaviest tree edge on the path between its ends.
+ *
+ * The path maxima are found offline with Tarjan's LCA algorithm.  A single
+ * depth-first walk of the forest links each finished vertex to its parent
+ * in a disjoint-sets forest that also remembers the heaviest edge on each
+ * link; a non-tree edge is resolved at its ends' lowest common ancestor,
+ * when the heaviest edges from both ends up to that ancestor can be read
+ * off with path compression.  The whole check takes near-linear time and
+ * linear memory, so it can run on production-size graphs.
+ *
+ * Each verify() method returns null if the tree passes, or else a message
+ * describing the first problem found.
+ */
+
+public class MstVerifier {
+
+  /**
+   * verify() checks that the WUGraph t is a minimum spanning forest of the
+   * WUGraph g.  t must have the same vertices as g.
+   */
+  public static String verify(WUGraph g, WUGraph t) {
+    return verify(g, t, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * verify() checks that the WUGraph t is a spanning forest of the WUGraph g
+   * that is minimal with respect to "order".
+   */
+  public static String verify(WUGraph g, WUGraph t, WeightTransform order) {
+    Object[] vertices = g.getVertices();
+    if (t.vertexCount() != vertices.length) {
+      return "tree has " + t.vertexCount() + " vertices; graph has " +
+        vertices.length;
+    }
+    for (int i = 0; i < vertices.length; i++) {
+      if (!t.isVertex(vertices[i])) {
+        return "graph vertex " + vertices[i] + " is not in the tree";
+      }
+    }
+    return check(EdgeList.of(g, vertices), EdgeList.of(t, vertices), order);
+  }
+
+  /**
+   * verify() checks that the IntGraph t is a minimum spanning forest of the
+   * IntGraph g.
+   */
+  public static String verify(IntGraph g, IntGraph t) {
+    return verify(g, t, WeightTransform.MINIMUM);
+  }
+
+  /**
+   * verify() checks that the IntGraph t is a spanning forest of the IntGraph
+   * g that is minimal with respect to "order".
+   */
+  public static String verify(IntGraph g, IntGraph t, WeightTransform order) {
+    if (t.vertexCount() != g.vertexCount()) {
+      return "tree has " + t.vertexCount() + " vertices; graph has " +
+        g.vertexCount();
+    }
+    return check(EdgeList.of(g), EdgeList.of(t), order);
+  }
+
+  /**
+   * verify() checks that the MstResult t, computed from the IntGraph g, is a
+   * spanning forest of g that is minimal with respect to t.order().
+   */
+  public static String verify(IntGraph g, MstResult t) {
+    if (t.vertexCount() != g.vertexCount()) {
+      return "tree has " + t.vertexCount() + " vertices; graph has " +
+        g.vertexCount();
+    }
+    return check(EdgeList.of(g), EdgeList.of(t), t.order());
+  }
+
+  /**
+   * verify() checks that the MstResult t, computed from the WUGraph g (which
+   * numbers the vertices as g.getVertices() does), is a spanning forest of g
+   * that is minimal with respect to t.order().
+   */
+  public static String verify(WUGraph g, MstResult t) {
+    if (t.vertexCount() != g.vertexCount()) {
+      return "tree has " + t.vertexCount() + " vertices; graph has " +
+        g.vertexCount();
+    }
+    return check(EdgeList.of(g), EdgeList.of(t), t.order());
+  }
+
+  /**
+   * check() checks that "tree" is a spanning forest of "graph" minimal with
+   * respect to "order".  Both number the vertices the same way.
+   *
+   * Running time:  O((n + m) log n) in the worst case and near-linear in
+   * practice, where n is the number of vertices and m the number of edges
+   * of the graph.
+   */
+  private static String check(EdgeList graph, EdgeList tree,
+                              WeightTransform order) {
+    int n = graph.numVertices;
+
+    // Find each tree edge among the graph's edges
+    LongHashTable index = new LongHashTable(graph.size);
+    for (int e = 0; e < graph.size; e++) {
+      index.insert(pack(graph.ends1[e], graph.ends2[e]), e);
+    }
+    boolean[] inTree = new boolean[graph.size];
+    DisjointSets treeSets = new DisjointSets(n);
+    for (int i = 0; i < tree.size; i++) {
+      int u = tree.ends1[i];
+      int v = tree.ends2[i];
+      int e = index.find(pack(u, v));
+      if (e < 0) {
+        return "tree edge " + edgeName(graph, u, v) + " is not in the graph";
+      }
+      if (graph.weights[e] != tree.weights[i]) {
+        return "tree edge " + edgeName(graph, u, v) + " has weight " +
+          tree.weights[i] + "; graph edge has weight " + graph.weights[e];
+      }
+      int root1 = treeSets.find(u);
+      int root2 = treeSets.find(v);
+      if (root1 == root2) {
+        return "tree edge " + edgeName(graph, u, v) + " closes a cycle";
+      }
+      treeSets.union(root1, root2);
+      inTree[e] = true;
+    }
+
+    // An acyclic subgraph spans every component exactly when it has
+    // n - (number of components) edges.
+    DisjointSets graphSets = new DisjointSets(n);
+    int components = n;
+    for (int e = 0; e < graph.size; e++) {
+      int root1 = graphSets.find(graph.ends1[e]);
+      int root2 = graphSets.find(graph.ends2[e]);
+      if (root1 != root2) {
+        graphSets.union(root1, root2);
+        components--;
+      }
+    }
+    if (tree.size != n - components) {
+      return "tree has " + tree.size + " edges; a spanning forest of the " +
+        "graph has " + (n - components);
+    }
+
+    return checkCycles(graph, tree, inTree, order);
+  }
+
+  /**
+   * checkCycles() checks the cycle property for every non-tree edge of
+   * "graph", with "tree" known to be a spanning forest of it.
+   */
+  private static String checkCycles(EdgeList graph, EdgeList tree,
+                                    boolean[] inTree, WeightTransform order) {
+    int n = graph.numVertices;
+
+    // Tree adjacency lists, and each vertex's non-tree edges ("queries")
+    int[] treeStart = new int[n + 1];
+    for (int i = 0; i < tree.size; i++) {
+      treeStart[tree.ends1[i] + 1]++;
+      treeStart[tree.ends2[i] + 1]++;
+    }
+    int[] queryStart = new int[n + 1];
+    for (int e = 0; e < graph.size; e++) {
+      if (!inTree[e] && graph.ends1[e] != graph.ends2[e]) {
+        queryStart[graph.ends1[e] + 1]++;
+        queryStart[graph.ends2[e] + 1]++;
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      treeStart[v + 1] += treeStart[v];
+      queryStart[v + 1] += queryStart[v];
+    }
+    int[] treeAdj = new int[2 * tree.size];
+    int[] queryAdj = new int[queryStart[n]];
+    int[] fill = new int[n];
+    System.arraycopy(treeStart, 0, fill, 0, n);
+    for (int i = 0; i < tree.size; i++) {
+      treeAdj[fill[tree.ends1[i]]++] = i;
+      treeAdj[fill[tree.ends2[i]]++] = i;
+    }
+    System.arraycopy(queryStart, 0, fill, 0, n);
+    for (int e = 0; e < graph.size; e++) {
+      if (!inTree[e] && graph.ends1[e] != graph.ends2[e]) {
+        queryAdj[fill[graph.ends1[e]]++] = e;
+        queryAdj[fill[graph.ends2[e]]++] = e;
+      }
+    }
+
+    // link[v] is v's parent in the disjoint-sets forest (v itself for a
+    // root), and linkMax[v] the heaviest key on the tree path from v up to
+    // link[v].  pending lists the non-tree edges whose ends' LCA is v.
+    int[] link = new int[n];
+    int[] linkMax = new int[n];
+    int[] pendingHead = new int[n];
+    int[] pendingNext = new int[graph.size];
+    int[] parent = new int[n];
+    int[] parentKey = new int[n];
+    int[] next = new int[n];
+    byte[] state = new byte[n];             // 0 new, 1 on stack, 2 finished
+    for (int v = 0; v < n; v++) {
+      link[v] = v;
+      pendingHead[v] = -1;
+      next[v] = treeStart[v];
+    }
+    int[] stack = new int[n];
+    int[] path = new int[n];
+
+    for (int root = 0; root < n; root++) {
+      if (state[root] != 0) {
+        continue;
+      }
+      int top = 0;
+      stack[top++] = root;
+      state[root] = 1;
+      parent[root] = -1;
+      while (top > 0) {
+        int x = stack[top - 1];
+        if (next[x] < treeStart[x + 1]) {
+          int i = treeAdj[next[x]++];
+          int y = tree.ends1[i] == x ? tree.ends2[i] : tree.ends1[i];
+          if (state[y] == 0) {
+            state[y] = 1;
+            parent[y] = x;
+            parentKey[y] = order.key(tree.weights[i]);
+            stack[top++] = y;
+          }
+          continue;
+        }
+
+        // x is finished: its children are all linked to it.  A non-tree
+        // edge to a finished vertex y has its LCA at y's set root.
+        top--;
+        state[x] = 2;
+        for (int j = queryStart[x]; j < queryStart[x + 1]; j++) {
+          int e = queryAdj[j];
+          int y = graph.ends1[e] == x ? graph.ends2[e] : graph.ends1[e];
+          if (state[y] == 2) {
+            int lca = find(link, linkMax, path, y);
+            pendingNext[e] = pendingHead[lca];
+            pendingHead[lca] = e;
+          }
+        }
+        for (int e = pendingHead[x]; e != -1; e = pendingNext[e]) {
+          int u = graph.ends1[e];
+          int v = graph.ends2[e];
+          find(link, linkMax, path, u);
+          find(link, linkMax, path, v);
+          int key = order.key(graph.weights[e]);
+          if ((u != x && key < linkMax[u]) || (v != x && key < linkMax[v])) {
+            return "non-tree edge " + edgeName(graph, u, v) + " of weight " +
+              graph.weights[e] + " is lighter than a tree edge on the " +
+              "path between its ends";
+          }
+        }
+        if (parent[x] != -1) {
+          link[x] = parent[x];
+          linkMax[x] = parentKey[x];
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * find() returns the root of v's set, and compresses the path from v so
+   * that afterward link[v] is the root and linkMax[v] the heaviest key on
+   * the way there.  "path" is scratch space.
+   */
+  private static int find(int[] link, int[] linkMax, int[] path, int v) {
+    int length = 0;
+    int x = v;
+    while (link[link[x]] != link[x]) {
+      path[length++] = x;
+      x = link[x];
+    }
+    int root = link[x];
+    // x links straight to the root; fix the path from the top down
+    for (int i = length - 1; i >= 0; i--) {
+      int y = path[i];
+      linkMax[y] = Math.max(linkMax[y], linkMax[link[y]]);
+      link[y] = root;
+    }
+    return root;
+  }
+
+  private static long pack(int u, int v) {
+    if (u > v) {
+      int swap = u;
+      u = v;
+      v = swap;
+    }
+    return ((long) u << 32) | (v & 0xFFFFFFFFL);
+  }
+
+  private static String edgeName(EdgeList graph, int u, int v) {
+    if (graph.vertices == null) {
+      return "(" + u + ", " + v + ")";
+    }
+    return "(" + graph.vertices[u] + ", " + graph.vertices[v] + ")";
+  }
+
+}
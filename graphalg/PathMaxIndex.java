@@ -0,0 +1,185 @@
+/* PathMaxIndex.java */
+
+package graphalg;
+
+/**
+ * A PathMaxIndex answers path-maximum queries on a spanning forest: given
+ * two vertices, it finds the heaviest edge on the tree path between them.
+ * That edge's weight is the bottleneck (minimax) distance between the two
+ * vertices, and a candidate edge (u, v, w) would change the minimum
+ * spanning tree exactly when w is lighter than the heaviest edge on the
+ * path from u to v.
+ *
+ * The index uses binary lifting.  Each forest is rooted at its lowest
+ * vertex, and for every vertex v and every k it records the 2^k-th ancestor
+ * of v and the heaviest edge on the way there.  Edges are compared by their
+ * number in the MstResult, which is the order Kruskal's algorithm accepted
+ * them in; that is nondecreasing key, so "heaviest" respects the tree's
+ * WeightTransform (for a maximum spanning tree it is the lightest edge).
+ */
+
+public class PathMaxIndex {
+
+  private MstResult tree;
+  private int levels;
+  private int[] depth;
+  // up[k][v] is the 2^k-th ancestor of v, or v's root if there is none
+  private int[][] up;
+  // maxEdge[k][v] is the highest-numbered edge on the way to up[k][v], or -1
+  private int[][] maxEdge;
+
+  /**
+   * PathMaxIndex() preprocesses the forest "tree".
+   *
+   * Running time:  O(n log n), where n is the number of vertices.
+   */
+  PathMaxIndex(MstResult tree) {
+    this.tree = tree;
+    int n = tree.vertexCount();
+    int m = tree.edgeCount();
+    levels = 1;
+    while ((1 << levels) < n) {
+      levels++;
+    }
+
+    // Adjacency lists of the forest, as arrays indexed by offsets
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < m; i++) {
+      offsets[tree.end1(i) + 1]++;
+      offsets[tree.end2(i) + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+    int[] next = new int[n];
+    System.arraycopy(offsets, 0, next, 0, n);
+    int[] adjEdge = new int[2 * m];
+    for (int i = 0; i < m; i++) {
+      adjEdge[next[tree.end1(i)]++] = i;
+      adjEdge[next[tree.end2(i)]++] = i;
+    }
+
+    // Root each tree at its lowest vertex and visit it breadth-first, so
+    // every vertex is visited after its parent.
+    depth = new int[n];
+    up = new int[levels][n];
+    maxEdge = new int[levels][n];
+    boolean[] visited = new boolean[n];
+    int[] queue = new int[n];
+    int tail = 0;
+    for (int root = 0; root < n; root++) {
+      if (visited[root]) {
+        continue;
+      }
+      visited[root] = true;
+      up[0][root] = root;
+      maxEdge[0][root] = -1;
+      queue[tail++] = root;
+      for (int head = tail - 1; head < tail; head++) {
+        int u = queue[head];
+        for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+          int e = adjEdge[j];
+          int w = tree.end1(e) == u ? tree.end2(e) : tree.end1(e);
+          if (!visited[w]) {
+            visited[w] = true;
+            depth[w] = depth[u] + 1;
+            up[0][w] = u;
+            maxEdge[0][w] = e;
+            queue[tail++] = w;
+          }
+        }
+      }
+    }
+
+    for (int k = 1; k < levels; k++) {
+      int[] half = up[k - 1];
+      int[] halfMax = maxEdge[k - 1];
+      for (int v = 0; v < n; v++) {
+        int mid = half[v];
+        up[k][v] = half[mid];
+        maxEdge[k][v] = Math.max(halfMax[v], halfMax[mid]);
+      }
+    }
+  }
+
+  /**
+   * connected() returns true if u and v lie in the same tree.
+   *
+   * Running time:  O(1).
+   */
+  public boolean connected(int u, int v) {
+    return tree.component(u) == tree.component(v);
+  }
+
+  /**
+   * pathMaxEdge() returns the number (in the MstResult) of the heaviest edge
+   * on the tree path between u and v, or -1 if u == v or if u and v lie in
+   * different trees.
+   *
+   * Running time:  O(log n).
+   */
+  public int pathMaxEdge(int u, int v) {
+    if (u == v || !connected(u, v)) {
+      return -1;
+    }
+    int best = -1;
+    if (depth[u] < depth[v]) {
+      int swap = u;
+      u = v;
+      v = swap;
+    }
+    int diff = depth[u] - depth[v];
+    for (int k = 0; diff != 0; k++, diff >>= 1) {
+      if ((diff & 1) != 0) {
+        best = Math.max(best, maxEdge[k][u]);
+        u = up[k][u];
+      }
+    }
+    if (u == v) {
+      return best;
+    }
+    for (int k = levels - 1; k >= 0; k--) {
+      if (up[k][u] != up[k][v]) {
+        best = Math.max(best, Math.max(maxEdge[k][u], maxEdge[k][v]));
+        u = up[k][u];
+        v = up[k][v];
+      }
+    }
+    return Math.max(best, Math.max(maxEdge[0][u], maxEdge[0][v]));
+  }
+
+  /**
+   * pathMax() returns the weight of the heaviest edge on the tree path
+   * between u and v: the bottleneck distance from u to v.  Returns zero if
+   * pathMaxEdge(u, v) is -1.
+   *
+   * Running time:  O(log n).
+   */
+  public int pathMax(int u, int v) {
+    int e = pathMaxEdge(u, v);
+    if (e < 0) {
+      return 0;
+    }
+    return tree.weight(e);
+  }
+
+  /**
+   * wouldChange() returns true if adding an edge (u, v) of weight "weight"
+   * to the graph would change the tree: either u and v lie in different
+   * trees, or the new edge sorts strictly before the heaviest edge on the
+   * path between them.  A self-edge never changes the tree.
+   *
+   * Running time:  O(log n).
+   */
+  public boolean wouldChange(int u, int v, int weight) {
+    if (u == v) {
+      return false;
+    }
+    if (!connected(u, v)) {
+      return true;
+    }
+    WeightTransform order = tree.order();
+    return order.key(weight) < order.key(tree.weight(pathMaxEdge(u, v)));
+  }
+
+}
@@ -0,0 +1,188 @@
+/* ReconstructionTree.java */
+
+package graphalg;
+
+/**
+ * A ReconstructionTree is the Kruskal reconstruction tree of a spanning
+ * forest: its leaves are the n vertices, numbered 0...n - 1, and each union
+ * Kruskal's algorithm performed is an internal node numbered n + i, whose
+ * children are the two clusters joined by the i-th tree edge and whose
+ * weight is that edge's weight.  These are exactly the clusters and merges
+ * of the forest's Dendrogram.
+ *
+ * The lowest common ancestor of two vertices is the union that first
+ * connected them, so its weight is their minimax (bottleneck) distance:
+ * the heaviest edge on the tree path between them.  LCA queries are
+ * answered in O(1) time by range-maximum queries over an Euler tour of the
+ * tree.  The tour is kept only at the leaves: entry p of the tour records
+ * the union visited between the p-th and (p + 1)-th leaves, which is the
+ * LCA of those two leaves, and the LCA of any two leaves is the
+ * highest-numbered union recorded between them.  A sparse table answers
+ * those range maxima.
+ */
+
+public class ReconstructionTree {
+
+  private MstResult tree;
+  private Dendrogram dendrogram;
+  private int numLeaves;
+  private int[] parent;
+  // position[v] is the place of leaf v in the tour
+  private int[] position;
+  // sparse[k][p] is the highest-numbered union among tour entries
+  // p...p + 2^k - 1, or -1 where the tour passes between two trees
+  private int[][] sparse;
+
+  /**
+   * ReconstructionTree() builds the reconstruction tree of "tree" from its
+   * dendrogram, tours it, and builds the sparse table.
+   *
+   * Running time:  O(n log n), where n is the number of vertices.
+   */
+  ReconstructionTree(MstResult tree) {
+    this.tree = tree;
+    dendrogram = tree.dendrogram();
+    numLeaves = dendrogram.leafCount();
+    int numMerges = dendrogram.mergeCount();
+    int nodes = numLeaves + numMerges;
+
+    parent = new int[nodes];
+    for (int x = 0; x < nodes; x++) {
+      parent[x] = -1;
+    }
+    for (int i = 0; i < numMerges; i++) {
+      parent[dendrogram.left(i)] = numLeaves + i;
+      parent[dendrogram.right(i)] = numLeaves + i;
+    }
+
+    // Tour each tree in order: left subtree, the union itself, right
+    // subtree.  A union is pushed as ~node beneath its children so that it
+    // is popped between them.
+    position = new int[numLeaves];
+    int[] tour = new int[Math.max(numLeaves - 1, 0)];
+    for (int p = 0; p < tour.length; p++) {
+      tour[p] = -1;
+    }
+    int[] stack = new int[nodes + 1];
+    int next = 0;
+    for (int root = 0; root < nodes; root++) {
+      if (parent[root] != -1) {
+        continue;
+      }
+      int top = 0;
+      stack[top++] = root;
+      while (top > 0) {
+        int x = stack[--top];
+        if (x < 0) {
+          tour[next - 1] = ~x - numLeaves;
+        } else if (x < numLeaves) {
+          position[x] = next++;
+        } else {
+          int i = x - numLeaves;
+          stack[top++] = dendrogram.right(i);
+          stack[top++] = ~x;
+          stack[top++] = dendrogram.left(i);
+        }
+      }
+    }
+
+    int levels = 1;
+    while ((1 << levels) <= tour.length) {
+      levels++;
+    }
+    sparse = new int[levels][];
+    sparse[0] = tour;
+    for (int k = 1; k < levels; k++) {
+      int half = 1 << (k - 1);
+      int[] below = sparse[k - 1];
+      int[] row = new int[tour.length - (1 << k) + 1];
+      for (int p = 0; p < row.length; p++) {
+        row[p] = Math.max(below[p], below[p + half]);
+      }
+      sparse[k] = row;
+    }
+  }
+
+  /**
+   * leafCount() returns the number of leaves (vertices).
+   */
+  public int leafCount() {
+    return numLeaves;
+  }
+
+  /**
+   * nodeCount() returns the number of nodes: the leaves plus one internal
+   * node per union.
+   */
+  public int nodeCount() {
+    return parent.length;
+  }
+
+  /**
+   * parent() returns the parent of node x, or -1 if x is a root.
+   */
+  public int parent(int x) {
+    return parent[x];
+  }
+
+  /**
+   * weight() returns the weight of internal node x: the weight of the edge
+   * whose union created it.
+   */
+  public int weight(int x) {
+    return dendrogram.weight(x - numLeaves);
+  }
+
+  /**
+   * connected() returns true if vertices u and v lie in the same tree.
+   *
+   * Running time:  O(1).
+   */
+  public boolean connected(int u, int v) {
+    return tree.component(u) == tree.component(v);
+  }
+
+  /**
+   * lca() returns the lowest common ancestor of vertices u and v: u itself
+   * if u == v, -1 if u and v lie in different trees, and otherwise the
+   * internal node of the union that first connected them.
+   *
+   * Running time:  O(1).
+   */
+  public int lca(int u, int v) {
+    if (u == v) {
+      return u;
+    }
+    if (!connected(u, v)) {
+      return -1;
+    }
+    int a = position[u];
+    int b = position[v];
+    if (a > b) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    // entries a...b - 1 lie between the two leaves
+    int k = 31 - Integer.numberOfLeadingZeros(b - a);
+    int[] row = sparse[k];
+    return numLeaves + Math.max(row[a], row[b - (1 << k)]);
+  }
+
+  /**
+   * minimax() returns the minimax distance between vertices u and v: the
+   * weight of the heaviest edge on the tree path between them, which no
+   * path in the graph can improve on.  Returns zero if u == v or if u and v
+   * lie in different trees.
+   *
+   * Running time:  O(1).
+   */
+  public int minimax(int u, int v) {
+    int x = lca(u, v);
+    if (x < numLeaves) {
+      return 0;
+    }
+    return weight(x);
+  }
+
+}
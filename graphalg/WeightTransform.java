@@ -0,0 +1,36 @@
+/* WeightTransform.java */
+
+package graphalg;
+
+/**
+ * A WeightTransform maps each edge weight to the key Kruskal's algorithm
+ * sorts edges by.  The edges are taken in nondecreasing order of key, but
+ * results always report the edges' real weights, and the graph itself is
+ * never changed or copied.
+ *
+ * MINIMUM (the default) sorts by weight, giving a minimum spanning tree.
+ * MAXIMUM sorts by descending weight, giving a maximum spanning tree, whose
+ * tree paths are the widest (maximum-bottleneck) paths of the graph.
+ */
+
+public interface WeightTransform {
+
+  public static final WeightTransform MINIMUM = new WeightTransform() {
+    public int key(int weight) {
+      return weight;
+    }
+  };
+
+  // ~weight reverses the order of all ints, with no overflow at MIN_VALUE
+  public static final WeightTransform MAXIMUM = new WeightTransform() {
+    public int key(int weight) {
+      return ~weight;
+    }
+  };
+
+  /**
+   * key() returns the sort key of an edge of weight "weight".
+   */
+  public int key(int weight);
+
+}
@@ -31,6 +31,31 @@ public class DisjointSets {
     }
   }
 
+  /**
+   *  toArray() returns a copy of the array representing the sets: entry x is
+   *  x's parent, or minus the size of x's set if x is a root.  Together with
+   *  fromArray(), it lets the sets be saved and restored.
+   *
+   *  @return a copy of the parent array.
+   **/
+  public int[] toArray() {
+    int[] copy = new int[array.length];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+
+  /**
+   *  fromArray() constructs a disjoint sets object from an array returned by
+   *  toArray().  The array is used as is, not copied.
+   *
+   *  @param array the parent array.
+   **/
+  public static DisjointSets fromArray(int[] array) {
+    DisjointSets s = new DisjointSets(0);
+    s.array = array;
+    return s;
+  }
+
   /**
    *  union() unites two disjoint sets into a single set.  A union-by-size
    *  heuristic is used to choose the new root.  This method will corrupt
@@ -75,6 +100,23 @@ public class DisjointSets {
     }
   }
 
+  /**
+   *  pathLength() returns the number of parent links from x up to the root
+   *  of its set (zero if x is a root).  It changes nothing, so it can be used
+   *  to count the work a find() is about to do.
+   *
+   *  @param x the element.
+   *  @return the number of links from x to its root.
+   **/
+  public int pathLength(int x) {
+    int length = 0;
+    while (array[x] >= 0) {
+      x = array[x];
+      length++;
+    }
+    return length;
+  }
+
   /**
    *  main() is test code.  All the find()s on the same output line should be
    *  identical.